@@ -0,0 +1,109 @@
+package com.example.bidbackend;
+
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.auction.BidIds;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.model.Bid;
+import com.example.bidbackend.model.Product;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Builds the objects the benchmarks share without starting a Spring context.
+ */
+public final class BenchmarkFixtures {
+	private BenchmarkFixtures() {}
+
+	/**
+	 * Binds {@link AppProperties} the way Boot does, so defaults come from the same annotations.
+	 * Keys are relative to {@code app}, e.g. {@code "bid-log.enabled"}.
+	 */
+	public static AppProperties appProperties(Map<String, String> overrides) {
+		Map<String, String> source = new HashMap<>();
+		source.put("app.uploads-dir", "./uploads");
+		overrides.forEach((key, value) -> source.put("app." + key, value));
+		return new Binder(new MapConfigurationPropertySource(source))
+				.bindOrCreate("app", Bindable.of(AppProperties.class));
+	}
+
+	/**
+	 * Bid ids from a counter instead of the database sequence.
+	 */
+	public static BidIds bidIds() {
+		AtomicLong counter = new AtomicLong();
+		return new BidIds(null, null) {
+			@Override
+			protected long fetchBlock() {
+				return counter.getAndAdd(Bid.ID_ALLOCATION_SIZE) + 1;
+			}
+		};
+	}
+
+	public static Product product(long id, LocalDateTime endTime) {
+		Product product = new Product();
+		product.setId(id);
+		product.setSellerName("seller-" + (id % 100));
+		product.setName("Vintage camera " + id);
+		product.setDescription("Rangefinder in working condition, with original leather case and strap. Lot " + id);
+		product.setStartingPrice(new BigDecimal("25.00"));
+		product.setEndTime(endTime);
+		product.setCreatedAt(endTime.minusDays(7));
+		product.setImageFilename(String.format("%032x.jpg", id * 0x9E3779B97F4A7C15L));
+		product.setSoftCloseWindowSeconds(120);
+		product.setSoftCloseExtensionSeconds(120);
+		return product;
+	}
+
+	public static AuctionSnapshot snapshot(Product product, BigDecimal price, long bidCount) {
+		return new AuctionSnapshot(
+				product.getId(),
+				product.getStartingPrice(),
+				price,
+				"bidder-" + bidCount,
+				product.getEndTime(),
+				bidCount,
+				false,
+				product.getSoftCloseWindowSeconds(),
+				product.getSoftCloseExtensionSeconds(),
+				bidCount
+		);
+	}
+
+	public static List<Bid> bids(int count, LocalDateTime start) {
+		List<Bid> bids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Bid bid = new Bid();
+			bid.setId((long) i + 1);
+			bid.setAmount(new BigDecimal("25.00").add(BigDecimal.valueOf(i)));
+			bid.setBidderName("bidder-" + (i % 37));
+			bid.setCreatedAt(start.plusSeconds(i));
+			bids.add(bid);
+		}
+		return bids;
+	}
+
+	public static void deleteRecursively(Path dir) throws IOException {
+		if (!Files.exists(dir)) {
+			return;
+		}
+		try (Stream<Path> files = Files.walk(dir)) {
+			for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.example.bidbackend.auction;
+
+import com.example.bidbackend.BenchmarkFixtures;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bid log appends, with and without waiting for the group fsync, and recovery of a log of a given size.
+ * Results depend heavily on the disk under {@code java.io.tmpdir}; a tmpfs makes {@code force()} free.
+ */
+public class BidLogBenchmark {
+	private static final BigDecimal AMOUNT = new BigDecimal("125.50");
+
+	@State(Scope.Benchmark)
+	public static class OpenLog {
+		BidLog bidLog;
+		Path dir;
+		LocalDateTime createdAt = LocalDateTime.now();
+
+		@Setup(Level.Trial)
+		public void open() throws IOException {
+			dir = Files.createTempDirectory("bid-log-bench-");
+			bidLog = newLog(dir);
+			bidLog.open();
+		}
+
+		@TearDown(Level.Trial)
+		public void close() throws IOException {
+			bidLog.close();
+			BenchmarkFixtures.deleteRecursively(dir);
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	@Fork(1)
+	public long append(OpenLog log) {
+		return checkpointed(log, log.bidLog.append(7L, AMOUNT, log.createdAt, "bidder-7"));
+	}
+
+	/**
+	 * Append and wait for the record to be forced, as {@code durability: LOG} does. Sixteen threads share
+	 * each fsync, which is the point of the group commit.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3, time = 2)
+	@Measurement(iterations = 5, time = 2)
+	@Fork(1)
+	@Threads(16)
+	public long appendAndForce(OpenLog log) {
+		long lsn = log.bidLog.append(7L, AMOUNT, log.createdAt, "bidder-7");
+		log.bidLog.awaitForced(lsn);
+		return checkpointed(log, lsn);
+	}
+
+	@State(Scope.Benchmark)
+	public static class WrittenLog {
+		@Param({"100000", "1000000"})
+		public int records;
+
+		Path dir;
+		BidLog bidLog;
+
+		@Setup(Level.Trial)
+		public void write() throws IOException {
+			dir = Files.createTempDirectory("bid-log-bench-");
+			BidLog writer = newLog(dir);
+			writer.open();
+			LocalDateTime createdAt = LocalDateTime.now();
+			for (int i = 0; i < records; i++) {
+				writer.append((long) (i % 5000), AMOUNT.add(BigDecimal.valueOf(i)), createdAt, "bidder-" + (i % 37));
+			}
+			writer.close();
+		}
+
+		@Setup(Level.Invocation)
+		public void prepare() {
+			bidLog = newLog(dir);
+		}
+
+		@TearDown(Level.Invocation)
+		public void release() {
+			bidLog.close();
+		}
+
+		@TearDown(Level.Trial)
+		public void delete() throws IOException {
+			BenchmarkFixtures.deleteRecursively(dir);
+		}
+	}
+
+	/**
+	 * Opening the log (which scans every segment) and handing every record to a consumer, as at startup.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	@Fork(1)
+	public long recover(WrittenLog log) throws IOException {
+		log.bidLog.open();
+		long[] sum = {0};
+		log.bidLog.replay(entry -> sum[0] += entry.lsn());
+		return sum[0];
+	}
+
+	// keeps disk use flat: segments behind the checkpoint are deleted
+	private static long checkpointed(OpenLog log, long lsn) {
+		if ((lsn & 0xFFFF) == 0) {
+			log.bidLog.checkpoint(lsn);
+		}
+		return lsn;
+	}
+
+	private static BidLog newLog(Path dir) {
+		AppProperties appProperties = BenchmarkFixtures.appProperties(Map.of(
+				"bid-log.enabled", "true",
+				"bid-log.dir", dir.toString(),
+				"bid-log.segment-size", "16MB"
+		));
+		return new BidLog(new WorkerThreads(new StandardEnvironment()), appProperties);
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.BenchmarkFixtures;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.model.Bid;
+import com.example.bidbackend.model.Product;
+import com.example.bidbackend.service.ProductMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list responses, configured as Boot configures the MVC converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class JsonSerializationBenchmark {
+	@Param({"10", "50", "200", "1000"})
+	public int size;
+
+	private ObjectWriter writer;
+	private List<ProductResponse> products;
+	private List<Bid> bids;
+
+	@Setup
+	public void setUp() {
+		writer = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build()
+				.writer();
+		AppProperties appProperties = BenchmarkFixtures.appProperties(Map.of());
+		LocalDateTime endTime = LocalDateTime.now().plusDays(1);
+		products = new ArrayList<>(size);
+		for (int i = 1; i <= size; i++) {
+			Product product = BenchmarkFixtures.product(i, endTime);
+			products.add(ProductMapper.toResponse(product,
+					BenchmarkFixtures.snapshot(product, new BigDecimal("99.50"), i), appProperties));
+		}
+		bids = BenchmarkFixtures.bids(size, endTime.minusDays(2));
+	}
+
+	@Benchmark
+	public byte[] products() throws JsonProcessingException {
+		return writer.writeValueAsBytes(products);
+	}
+
+	@Benchmark
+	public byte[] bids() throws JsonProcessingException {
+		return writer.writeValueAsBytes(bids);
+	}
+}
@@ -0,0 +1,151 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.BenchmarkFixtures;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.service.UploadFileCache;
+import com.example.bidbackend.storage.BlobStore;
+import com.example.bidbackend.storage.LocalBlobStore;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UploadFileController#serve} against returning the file as a plain {@link Resource}, which is
+ * what the controller replaced: Spring's {@link ResourceHttpMessageConverter} copying a
+ * {@link FileSystemResource} through the response stream.
+ *
+ * <p>Bodies are written to a stream that discards them, so Tomcat's sendfile is not exercised. Files up
+ * to {@code small-file-max-size} come from the controller's cache and larger ones are streamed from disk.
+ * {@code revalidate} is a conditional request answered with 304, which the plain resource cannot do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class UploadFileControllerBenchmark {
+	@Param({"4096", "262144", "2097152"})
+	public int bytes;
+
+	private Path dir;
+	private UploadFileController controller;
+	private ResourceHttpMessageConverter converter;
+	private String key;
+	private Resource resource;
+	private String etag;
+	private MockServletContext servletContext;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("upload-serving-bench-");
+		AppProperties appProperties = BenchmarkFixtures.appProperties(Map.of("uploads-dir", dir.toString()));
+		BlobStore blobStore = new LocalBlobStore(dir);
+		byte[] content = new byte[bytes];
+		new Random(42).nextBytes(content);
+		key = blobStore.put(new ByteArrayInputStream(content), ".jpg");
+		controller = new UploadFileController(blobStore, new UploadFileCache(appProperties), appProperties);
+		converter = new ResourceHttpMessageConverter();
+		resource = new FileSystemResource(blobStore.localPath(key));
+		servletContext = new MockServletContext();
+
+		DiscardingResponse first = new DiscardingResponse();
+		controller.serve(key, request(), first);
+		etag = first.getHeader("ETag");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkFixtures.deleteRecursively(dir);
+	}
+
+	@Benchmark
+	public long controller() throws IOException {
+		DiscardingResponse response = new DiscardingResponse();
+		controller.serve(key, request(), response);
+		return response.written;
+	}
+
+	@Benchmark
+	public int revalidate() throws IOException {
+		MockHttpServletRequest request = request();
+		request.addHeader("If-None-Match", etag);
+		DiscardingResponse response = new DiscardingResponse();
+		controller.serve(key, request, response);
+		return response.getStatus();
+	}
+
+	@Benchmark
+	public long plainResource() throws IOException {
+		DiscardingResponse response = new DiscardingResponse();
+		ServletServerHttpResponse output = new ServletServerHttpResponse(response);
+		converter.write(resource, MediaType.IMAGE_JPEG, output);
+		output.flush();
+		return response.written;
+	}
+
+	// a fresh MockServletContext per request would cost more than serving the file
+	private MockHttpServletRequest request() {
+		return new MockHttpServletRequest(servletContext, "GET", "/uploads/" + key);
+	}
+
+	// MockHttpServletResponse copies its body a byte at a time, which would drown out what is measured
+	private static final class DiscardingResponse extends MockHttpServletResponse {
+		private long written;
+		private final ServletOutputStream out = new ServletOutputStream() {
+			@Override
+			public void write(int b) {
+				written++;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				written += len;
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener listener) {
+			}
+		};
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return out;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.example.bidbackend.search;
+
+import com.example.bidbackend.BenchmarkFixtures;
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.auction.BidWriteBehind;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.SearchDocument;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.model.Product;
+import com.example.bidbackend.repository.BidRepository;
+import com.example.bidbackend.repository.ProductListingQuery;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.repository.ProxyBidRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link ProductSearchIndex} over a synthetic catalog of {@code products} listings.
+ *
+ * <p>Words are drawn from a 20,000-word vocabulary with a Zipf distribution, so the index has the long
+ * tail of a real catalog: {@code commonTerm} searches the most frequent word, {@code midTerm} the 100th and
+ * {@code rareTerm} the 5,000th. Every product is live in the auction book, which the filters read.
+ * Building the catalog takes a while and needs a few GB of heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProductSearchIndexBenchmark {
+	private static final int VOCABULARY = 20_000;
+	private static final int PAGE = 51;
+
+	@Param({"1000000"})
+	public int products;
+
+	private ProductSearchIndex index;
+	private String[] words;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		AppProperties appProperties = BenchmarkFixtures.appProperties(Map.of());
+		Random random = new Random(42);
+		words = vocabulary(random);
+		double[] cumulative = zipf();
+
+		AuctionBook auctionBook = new AuctionBook(
+				Mockito.mock(ProductRepository.class),
+				Mockito.mock(BidRepository.class),
+				Mockito.mock(ProxyBidRepository.class),
+				Mockito.mock(BidWriteBehind.class),
+				BenchmarkFixtures.bidIds(),
+				event -> {},
+				appProperties
+		);
+		LocalDateTime now = LocalDateTime.now();
+		List<SearchDocument> documents = new ArrayList<>(products);
+		for (long id = 1; id <= products; id++) {
+			Product product = BenchmarkFixtures.product(id, now.plusMinutes(random.nextInt(60 * 24 * 30)));
+			product.setStartingPrice(BigDecimal.valueOf(1 + random.nextInt(500)));
+			auctionBook.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, product));
+			documents.add(new SearchDocument(
+					id,
+					text(random, cumulative, 3),
+					text(random, cumulative, 12),
+					"seller" + random.nextInt(10_000)
+			));
+		}
+		ProductRepository repository = Mockito.mock(ProductRepository.class);
+		Mockito.when(repository.findSearchDocuments()).thenReturn(documents);
+		index = new ProductSearchIndex(repository, auctionBook, appProperties);
+		index.rebuild();
+	}
+
+	@Benchmark
+	public List<ProductSearchIndex.Hit> commonTerm() {
+		return search(words[0] + " ", null, SearchSort.RELEVANCE);
+	}
+
+	@Benchmark
+	public List<ProductSearchIndex.Hit> midTerm() {
+		return search(words[99] + " ", null, SearchSort.RELEVANCE);
+	}
+
+	@Benchmark
+	public List<ProductSearchIndex.Hit> rareTerm() {
+		return search(words[4_999] + " ", null, SearchSort.RELEVANCE);
+	}
+
+	@Benchmark
+	public List<ProductSearchIndex.Hit> commonAndRare() {
+		return search(words[0] + " " + words[4_999] + " ", null, SearchSort.RELEVANCE);
+	}
+
+	/**
+	 * Typeahead: a full word followed by the first letters of the next one.
+	 */
+	@Benchmark
+	public List<ProductSearchIndex.Hit> typeahead() {
+		return search(words[99] + " " + words[9].substring(0, 3), null, SearchSort.RELEVANCE);
+	}
+
+	@Benchmark
+	public List<ProductSearchIndex.Hit> filteredEndingSoon() {
+		return search(words[99] + " ", new BigDecimal("100"), SearchSort.ENDING_SOON);
+	}
+
+	private List<ProductSearchIndex.Hit> search(String text, BigDecimal maxPrice, SearchSort sort) {
+		return index.search(new ProductSearchIndex.Query(
+				text, ProductListingQuery.Status.ACTIVE, null, maxPrice, sort, null, PAGE));
+	}
+
+	private static String[] vocabulary(Random random) {
+		String consonants = "bcdfghjklmnprstvz";
+		String vowels = "aeiou";
+		Set<String> seen = new LinkedHashSet<>();
+		while (seen.size() < VOCABULARY) {
+			StringBuilder word = new StringBuilder();
+			int syllables = 2 + random.nextInt(3);
+			for (int s = 0; s < syllables; s++) {
+				word.append(consonants.charAt(random.nextInt(consonants.length())));
+				word.append(vowels.charAt(random.nextInt(vowels.length())));
+			}
+			seen.add(word.toString());
+		}
+		return seen.toArray(new String[0]);
+	}
+
+	private static double[] zipf() {
+		double[] cumulative = new double[VOCABULARY];
+		double sum = 0;
+		for (int rank = 0; rank < VOCABULARY; rank++) {
+			sum += 1.0 / (rank + 1);
+			cumulative[rank] = sum;
+		}
+		for (int rank = 0; rank < VOCABULARY; rank++) {
+			cumulative[rank] /= sum;
+		}
+		return cumulative;
+	}
+
+	private String text(Random random, double[] cumulative, int length) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+			text.append(i > 0 ? " " : "").append(words[rank >= 0 ? rank : Math.min(-rank - 1, VOCABULARY - 1)]);
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,144 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.BenchmarkFixtures;
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.auction.BidLog;
+import com.example.bidbackend.auction.BidWriteBehind;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.dto.BidRequest;
+import com.example.bidbackend.dto.BidResponse;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.repository.BidRepository;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.repository.ProxyBidRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bid validation and acceptance through {@link BidService#placeBid}: the stripe lock, the price check,
+ * the snapshot update and event publication. Repositories are stubs and the write-behind discards what
+ * it is handed, so the database writer is not part of the number; the load harness covers it.
+ *
+ * <p>{@code products} spreads bids over that many auctions; with one product every thread contends
+ * for the same stripe.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class BidServiceBenchmark {
+	@Param({"1", "1024"})
+	public int products;
+
+	private BidService bidService;
+	private BidRequest lowBid;
+	// every accepted bid must beat the last one, so amounts come from a shared counter
+	private final AtomicLong nextAmount = new AtomicLong(1_000);
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		AppProperties appProperties = BenchmarkFixtures.appProperties(Map.of());
+		WorkerThreads workerThreads = new WorkerThreads(new StandardEnvironment());
+		BidWriteBehind writeBehind = new DiscardingWriteBehind(
+				new BidLog(workerThreads, appProperties), workerThreads, appProperties);
+		AuctionBook auctionBook = new AuctionBook(
+				Mockito.mock(ProductRepository.class),
+				Mockito.mock(BidRepository.class),
+				Mockito.mock(ProxyBidRepository.class),
+				writeBehind,
+				BenchmarkFixtures.bidIds(),
+				event -> {},
+				appProperties
+		);
+		LocalDateTime endTime = LocalDateTime.now().plusDays(30);
+		for (long id = 1; id <= products; id++) {
+			auctionBook.onProductChanged(new ProductChangedEvent(
+					ProductChangedEvent.Type.CREATED, BenchmarkFixtures.product(id, endTime)));
+		}
+		bidService = new BidService(auctionBook, Mockito.mock(BidRepository.class), appProperties, new SimpleMeterRegistry());
+		lowBid = new BidRequest();
+		lowBid.setAmount(BigDecimal.ONE);
+		lowBid.setBidderName("lowballer");
+	}
+
+	@Benchmark
+	public BidResponse accept() {
+		return place();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public BidResponse acceptContended() {
+		return place();
+	}
+
+	/**
+	 * A bid below the current price: the cost is dominated by building the exception.
+	 */
+	@Benchmark
+	public Object reject() {
+		try {
+			return bidService.placeBid(1L, lowBid);
+		} catch (ApiException e) {
+			return e;
+		}
+	}
+
+	private BidResponse place() {
+		long amount = nextAmount.incrementAndGet();
+		BidRequest request = new BidRequest();
+		request.setAmount(BigDecimal.valueOf(amount));
+		request.setBidderName("bidder-" + (amount & 63));
+		try {
+			return bidService.placeBid(1 + amount % products, request);
+		} catch (ApiException e) {
+			// a concurrent bid on the same product got a higher amount in first
+			return null;
+		}
+	}
+
+	/**
+	 * Write-behind that acknowledges without queueing, so the benchmark does not accumulate bids.
+	 */
+	private static final class DiscardingWriteBehind extends BidWriteBehind {
+		private static final Receipt WRITTEN = new Receipt(0, CompletableFuture.completedFuture(null));
+
+		private DiscardingWriteBehind(BidLog bidLog, WorkerThreads workerThreads, AppProperties appProperties) {
+			super(null, null, null, null, bidLog, workerThreads, appProperties);
+		}
+
+		@Override
+		public Receipt enqueue(Long productId, long bidId, BigDecimal amount, String bidderName, LocalDateTime at) {
+			return WRITTEN;
+		}
+
+		@Override
+		public void enqueueExtension(Long productId, LocalDateTime endTime) {
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.BenchmarkFixtures;
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.dto.ProductSummary;
+import com.example.bidbackend.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product-to-response mapping, including the three image URLs built per product. Status comes from the
+ * auction book, so the mapper no longer reads the clock; {@code withAuction} is the cached-detail path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ProductMapperBenchmark {
+	@Param({"", "https://bitdding-backend.onrender.com"})
+	public String baseUrl;
+
+	private AppProperties appProperties;
+	private Product product;
+	private ProductSummary summary;
+	private AuctionSnapshot auction;
+	private ProductResponse cached;
+
+	@Setup
+	public void setUp() {
+		appProperties = BenchmarkFixtures.appProperties(Map.of("base-url", baseUrl));
+		product = BenchmarkFixtures.product(42, LocalDateTime.now().plusDays(1));
+		auction = BenchmarkFixtures.snapshot(product, new BigDecimal("81.00"), 12);
+		summary = new ProductSummary(
+				product.getId(),
+				product.getSellerName(),
+				product.getName(),
+				product.getDescription(),
+				product.getStartingPrice(),
+				product.getEndTime(),
+				product.getCreatedAt(),
+				null,
+				product.getImageFilename(),
+				new BigDecimal("80.00"),
+				12L
+		);
+		cached = ProductMapper.toResponse(product, auction, appProperties);
+	}
+
+	@Benchmark
+	public ProductResponse product() {
+		return ProductMapper.toResponse(product, auction, appProperties);
+	}
+
+	@Benchmark
+	public ProductResponse summary() {
+		return ProductMapper.toResponse(summary, auction, appProperties);
+	}
+
+	@Benchmark
+	public ProductResponse withAuction() {
+		return ProductMapper.withAuction(cached, auction);
+	}
+}
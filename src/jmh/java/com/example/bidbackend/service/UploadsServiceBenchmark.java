@@ -0,0 +1,101 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.BenchmarkFixtures;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.storage.BlobStore;
+import com.example.bidbackend.storage.LocalBlobStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UploadsService#saveImage} against the local blob store in a temporary directory: streaming
+ * SHA-256, the temp-file copy and the atomic move into the shard. Variant rendering is stubbed out.
+ *
+ * <p>{@code fresh} stores new content on every call (the stored file is removed between invocations);
+ * {@code duplicate} re-uploads content that is already stored, which hashes and copies but never moves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadsServiceBenchmark {
+	@Param({"16384", "262144", "2097152", "8388608"})
+	public int bytes;
+
+	private Path dir;
+	private BlobStore blobStore;
+	private UploadsService uploadsService;
+	private byte[] content;
+	private long counter;
+	private String stored;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("uploads-bench-");
+		AppProperties appProperties = BenchmarkFixtures.appProperties(Map.of("uploads-dir", dir.toString()));
+		blobStore = new LocalBlobStore(dir);
+		ImageReferences references = new ImageReferences(
+				blobStore,
+				Mockito.mock(ProductRepository.class),
+				new UploadFileCache(appProperties),
+				new WorkerThreads(new StandardEnvironment()),
+				appProperties
+		);
+		uploadsService = new UploadsService(blobStore, references, Mockito.mock(ImagePipeline.class),
+				new SimpleMeterRegistry(), appProperties);
+		content = new byte[bytes];
+		new Random(42).nextBytes(content);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkFixtures.deleteRecursively(dir);
+	}
+
+	@TearDown(Level.Invocation)
+	public void removeStored() throws IOException {
+		if (stored != null) {
+			blobStore.delete(stored);
+			stored = null;
+		}
+	}
+
+	@Benchmark
+	public String fresh() {
+		ByteBuffer.wrap(content).putLong(0, ++counter);
+		stored = uploadsService.saveImage(new MockMultipartFile("image", "photo.jpg", "image/jpeg", content));
+		return stored;
+	}
+
+	@Benchmark
+	public String duplicate() {
+		return uploadsService.saveImage(new MockMultipartFile("image", "photo.jpg", "image/jpeg", content));
+	}
+}
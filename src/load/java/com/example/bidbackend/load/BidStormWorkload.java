@@ -0,0 +1,110 @@
+package com.example.bidbackend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The closing minute of a few hot auctions: every client bids a little above the last price it saw,
+ * while watchers poll the same products. The auctions are created to end with the scenario and use
+ * soft close, so late bids keep extending them; bids after the close are rejected, as they should be.
+ *
+ * <p>Afterwards the live price of every hot product must equal its highest stored bid.
+ */
+final class BidStormWorkload implements Workload {
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final int hotProducts;
+	private final Duration openFor;
+	private final byte[] image;
+	private final List<Long> productIds = new ArrayList<>();
+	private AtomicLongArray prices;
+
+	BidStormWorkload(int hotProducts, Duration openFor, byte[] image) {
+		this.hotProducts = hotProducts;
+		this.openFor = openFor;
+		this.image = image;
+	}
+
+	@Override
+	public void setUp(LoadDriver driver) throws Exception {
+		LocalDateTime endTime = LocalDateTime.now().plus(openFor).truncatedTo(ChronoUnit.SECONDS);
+		prices = new AtomicLongArray(hotProducts);
+		for (int i = 0; i < hotProducts; i++) {
+			HttpRequest request = Multipart.of(Map.of(
+							"sellerName", "storm-seller",
+							"name", "Hot lot " + i,
+							"description", "Closing-minute bid storm target",
+							"startingPrice", "100.00",
+							"endTime", endTime.toString(),
+							"softCloseWindowSeconds", "60",
+							"softCloseExtensionSeconds", "10"))
+					.file("image", "hot.png", "image/png", image)
+					.into(driver.request("/api/products"))
+					.build();
+			HttpResponse<String> response = driver.call(request, HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() != 200) {
+				throw new IllegalStateException("Could not create hot product: " + response.body());
+			}
+			productIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+			prices.set(i, 100);
+		}
+	}
+
+	@Override
+	public void next(LoadDriver.Session session) throws Exception {
+		int i = session.random().nextInt(hotProducts);
+		Long productId = productIds.get(i);
+		if (session.random().nextInt(10) < 3) {
+			session.send("GET /api/products/{id}", session.request("/api/products/" + productId).build(),
+					HttpResponse.BodyHandlers.discarding());
+			return;
+		}
+		long amount = prices.get(i) + 1 + session.random().nextInt(5);
+		String body = "{\"amount\":" + amount + ",\"bidderName\":\"storm-" + session.random().nextInt(200) + "\"}";
+		HttpResponse<Void> response = session.send("POST /api/products/{id}/bids",
+				session.request("/api/products/" + productId + "/bids")
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(body))
+						.build(),
+				HttpResponse.BodyHandlers.discarding());
+		if (response != null) {
+			// accepted, or outbid in the meantime: either way the price is at least this much now
+			prices.accumulateAndGet(i, amount, Math::max);
+		}
+	}
+
+	@Override
+	public List<String> counters() {
+		return List.of("auction.extensions");
+	}
+
+	@Override
+	public List<LoadReport.Check> verify(LoadDriver driver) throws Exception {
+		Thread.sleep(1_000);
+		List<LoadReport.Check> checks = new ArrayList<>();
+		for (Long productId : productIds) {
+			JsonNode product = get(driver, "/api/products/" + productId);
+			JsonNode top = get(driver, "/api/products/" + productId + "/bids?limit=1");
+			BigDecimal live = product.get("currentPrice").decimalValue();
+			BigDecimal stored = top.isEmpty() ? null : top.get(0).get("amount").decimalValue();
+			boolean passed = stored != null && live.compareTo(stored) == 0;
+			checks.add(new LoadReport.Check("top bid stored for product " + productId, passed,
+					"live " + live + ", stored " + stored + ", status " + product.get("status").asText()));
+		}
+		return checks;
+	}
+
+	private JsonNode get(LoadDriver driver, String path) throws Exception {
+		return objectMapper.readTree(driver.call(driver.request(path).build(), HttpResponse.BodyHandlers.ofString()).body());
+	}
+}
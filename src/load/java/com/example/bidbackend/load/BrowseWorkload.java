@@ -0,0 +1,78 @@
+package com.example.bidbackend.load;
+
+import com.example.bidbackend.service.ImageVariant;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-heavy traffic: catalog pages (sometimes following the cursor), product details skewed towards
+ * popular products, bid lists and thumbnails, revalidated with If-None-Match like a browser would.
+ */
+final class BrowseWorkload implements Workload {
+	private final List<Long> productIds;
+	private final List<String> images;
+
+	BrowseWorkload(DataSeeder.Seed seed) {
+		this.productIds = seed.productIds();
+		this.images = seed.images();
+	}
+
+	@Override
+	public void next(LoadDriver.Session session) throws Exception {
+		int pick = session.random().nextInt(100);
+		if (pick < 40) {
+			catalogPage(session);
+		} else if (pick < 75) {
+			session.send("GET /api/products/{id}",
+					session.request("/api/products/" + popularProduct(session)).build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+		} else if (pick < 90) {
+			session.send("GET /api/products/{id}/bids",
+					session.request("/api/products/" + popularProduct(session) + "/bids?limit=20").build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+		} else {
+			thumbnail(session);
+		}
+	}
+
+	private void catalogPage(LoadDriver.Session session) throws InterruptedException {
+		String cursor = session.attribute("cursor");
+		String path = "/api/products?limit=50"
+				+ (cursor != null && session.random().nextBoolean() ? "&cursor=" + cursor : "");
+		HttpResponse<byte[]> response = session.send("GET /api/products", session.request(path).build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+		if (response != null) {
+			session.attribute("cursor", response.headers().firstValue("X-Next-Cursor").orElse(null));
+		}
+	}
+
+	private void thumbnail(LoadDriver.Session session) throws InterruptedException {
+		String file = ImageVariant.THUMB.filename(images.get(session.random().nextInt(images.size())));
+		Map<String, String> known = session.attribute("etags");
+		Map<String, String> etags = known != null ? known : new ConcurrentHashMap<>();
+		session.attribute("etags", etags);
+		HttpRequest.Builder request = session.request("/uploads/" + file);
+		String etag = etags.get(file);
+		if (etag != null && session.random().nextBoolean()) {
+			request.header("If-None-Match", etag);
+		}
+		HttpResponse<byte[]> response = session.send("GET /uploads/{file}", request.build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+		if (response != null) {
+			response.headers().firstValue("ETag").ifPresent(tag -> etags.put(file, tag));
+		}
+	}
+
+	// four out of five requests go to the most popular tenth of the catalog
+	private long popularProduct(LoadDriver.Session session) {
+		int size = productIds.size();
+		int index = session.random().nextInt(5) < 4
+				? session.random().nextInt(Math.max(1, size / 10))
+				: session.random().nextInt(size);
+		return productIds.get(index);
+	}
+}
@@ -0,0 +1,149 @@
+package com.example.bidbackend.load;
+
+import com.example.bidbackend.model.Bid;
+import com.example.bidbackend.model.Product;
+import com.example.bidbackend.repository.BidRepository;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.service.ImagePipeline;
+import com.example.bidbackend.service.ImageVariant;
+import com.example.bidbackend.storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database through the repositories, the way a production catalog would look after a while:
+ * most auctions open, some sold, and bids concentrated on a few popular products.
+ */
+final class DataSeeder {
+	private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+	private static final int IMAGES = 12;
+	private static final int BATCH = 1_000;
+
+	private final ProductRepository productRepository;
+	private final BidRepository bidRepository;
+	private final BlobStore blobStore;
+	private final ImagePipeline imagePipeline;
+	private final TransactionTemplate transactions;
+	private final Random random = new Random(20240601);
+
+	DataSeeder(ApplicationContext context) {
+		this.productRepository = context.getBean(ProductRepository.class);
+		this.bidRepository = context.getBean(BidRepository.class);
+		this.blobStore = context.getBean(BlobStore.class);
+		this.imagePipeline = context.getBean(ImagePipeline.class);
+		this.transactions = context.getBean(TransactionTemplate.class);
+	}
+
+	/**
+	 * What the workloads need to know about the seeded data.
+	 */
+	record Seed(List<Long> productIds, List<String> images) {}
+
+	Seed seed(int products, int bids) throws IOException, InterruptedException {
+		long started = System.nanoTime();
+		List<String> images = storeImages();
+		LocalDateTime now = LocalDateTime.now();
+
+		// popular products get most bids: the share of product i falls off with its index
+		int[] bidCounts = new int[products];
+		for (int i = 0; i < bids; i++) {
+			bidCounts[(int) (products * Math.pow(random.nextDouble(), 3))]++;
+		}
+
+		List<Long> ids = new ArrayList<>(products);
+		for (int from = 0; from < products; from += BATCH) {
+			List<Product> batch = new ArrayList<>(BATCH);
+			for (int i = from; i < Math.min(products, from + BATCH); i++) {
+				batch.add(product(i, images.get(i % images.size()), bidCounts[i], now));
+			}
+			transactions.executeWithoutResult(status ->
+					productRepository.saveAll(batch).forEach(p -> ids.add(p.getId())));
+		}
+
+		List<Bid> pending = new ArrayList<>(BATCH * 5);
+		for (int i = 0; i < products; i++) {
+			Long productId = ids.get(i);
+			Product product = productRepository.findById(productId).orElseThrow();
+			for (int k = 0; k < bidCounts[i]; k++) {
+				Bid bid = new Bid();
+				bid.setAmount(product.getStartingPrice().add(BigDecimal.valueOf(k + 1)));
+				bid.setBidderName("bidder-" + random.nextInt(5_000));
+				bid.setCreatedAt(product.getCreatedAt().plusSeconds(30L * (k + 1)));
+				bid.setProduct(product);
+				pending.add(bid);
+			}
+			if (pending.size() >= BATCH * 5 || i == products - 1) {
+				List<Bid> batch = List.copyOf(pending);
+				pending.clear();
+				transactions.executeWithoutResult(status -> bidRepository.saveAll(batch));
+			}
+		}
+		awaitVariants(images);
+		log.info("Seeded {} products and {} bids in {} ms", products, bids, (System.nanoTime() - started) / 1_000_000);
+		return new Seed(List.copyOf(ids), images);
+	}
+
+	private Product product(int i, String image, int bidCount, LocalDateTime now) {
+		Product product = new Product();
+		product.setSellerName("seller-" + random.nextInt(500));
+		product.setName("Lot " + i + " " + List.of("camera", "watch", "guitar", "lamp", "bicycle").get(i % 5));
+		product.setDescription("Seeded listing " + i + ". Good condition, ships within two days.");
+		product.setStartingPrice(BigDecimal.valueOf(5 + random.nextInt(500), 0).setScale(2));
+		product.setImageFilename(image);
+		product.setSoftCloseWindowSeconds(60);
+		product.setSoftCloseExtensionSeconds(30);
+		LocalDateTime created = now.minusHours(1 + random.nextInt(24 * 14));
+		product.setCreatedAt(created);
+		if (random.nextInt(100) < 15) {
+			// sold: closed by the time the harness starts
+			product.setEndTime(created.plusHours(1).isBefore(now) ? created.plusHours(1) : now.minusMinutes(1));
+			product.setClosedAt(product.getEndTime());
+			product.setFinalPrice(product.getStartingPrice().add(BigDecimal.valueOf(bidCount)));
+		} else {
+			product.setEndTime(now.plusHours(1 + random.nextInt(24 * 7)));
+		}
+		return product;
+	}
+
+	private List<String> storeImages() throws IOException {
+		List<String> keys = new ArrayList<>(IMAGES);
+		for (int i = 0; i < IMAGES; i++) {
+			BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = image.createGraphics();
+			g.setPaint(new GradientPaint(0, 0, Color.getHSBColor(i / (float) IMAGES, 0.6f, 0.9f),
+					640, 480, Color.DARK_GRAY));
+			g.fillRect(0, 0, 640, 480);
+			g.dispose();
+			ByteArrayOutputStream png = new ByteArrayOutputStream();
+			ImageIO.write(image, "png", png);
+			String key = blobStore.put(new ByteArrayInputStream(png.toByteArray()), ".png");
+			imagePipeline.submit(key);
+			keys.add(key);
+		}
+		return keys;
+	}
+
+	private void awaitVariants(List<String> images) throws IOException, InterruptedException {
+		for (String image : images) {
+			for (int attempt = 0; attempt < 100 && blobStore.stat(ImageVariant.THUMB.filename(image)) == null; attempt++) {
+				Thread.sleep(100);
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.bidbackend.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and response codes of one endpoint during one scenario. Latency runs from the moment the
+ * request was due (not when it was sent), so a stalled server cannot hide its queueing delay.
+ */
+final class EndpointStats {
+	private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+	private final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+	private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+	private final LongAdder errors = new LongAdder();
+
+	void record(int status, long micros) {
+		latency.recordValue(Math.min(Math.max(micros, 0), MAX_MICROS));
+		statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+	}
+
+	void recordError(long micros) {
+		latency.recordValue(Math.min(Math.max(micros, 0), MAX_MICROS));
+		errors.increment();
+	}
+
+	LoadReport.Endpoint toReport(double seconds) {
+		Map<String, Long> counts = new TreeMap<>();
+		statuses.forEach((status, count) -> counts.put(String.valueOf(status), count.sum()));
+		long total = latency.getTotalCount();
+		return new LoadReport.Endpoint(
+				total,
+				total / seconds,
+				errors.sum(),
+				counts,
+				millis(latency.getMean()),
+				millis(latency.getValueAtPercentile(50)),
+				millis(latency.getValueAtPercentile(99)),
+				millis(latency.getValueAtPercentile(99.9)),
+				millis(latency.getMaxValue())
+		);
+	}
+
+	private static double millis(double micros) {
+		return Math.round(micros) / 1000.0;
+	}
+}
@@ -0,0 +1,16 @@
+package com.example.bidbackend.load;
+
+import java.net.http.HttpResponse;
+
+/**
+ * Full bid history exports; the client discards the stream as it arrives, and the recorded latency
+ * covers the whole body. The scenario's peak heap shows whether the export stays flat as the table grows.
+ */
+final class ExportWorkload implements Workload {
+	@Override
+	public void next(LoadDriver.Session session) throws Exception {
+		String format = session.random().nextBoolean() ? "jsonl" : "csv";
+		session.send("GET /api/bids/export", session.request("/api/bids/export?format=" + format).build(),
+				HttpResponse.BodyHandlers.discarding());
+	}
+}
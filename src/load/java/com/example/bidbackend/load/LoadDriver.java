@@ -0,0 +1,221 @@
+package com.example.bidbackend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a workload from a fixed number of client threads against the running application.
+ *
+ * <p>Without a rate every client sends its next request as soon as the previous one returns. With a
+ * rate (requests per second over all clients) each client follows a fixed schedule and latency is
+ * measured from the scheduled time, which keeps coordinated omission out of the percentiles.
+ */
+final class LoadDriver {
+	private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient http;
+	private final URI base;
+
+	LoadDriver(int port) {
+		this.http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		this.base = URI.create("http://localhost:" + port);
+	}
+
+	HttpRequest.Builder request(String path) {
+		return HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofMinutes(2));
+	}
+
+	/**
+	 * Sends a request outside of any measurement, for setup and checks.
+	 */
+	<T> HttpResponse<T> call(HttpRequest request, HttpResponse.BodyHandler<T> body) throws IOException, InterruptedException {
+		return http.send(request, body);
+	}
+
+	LoadReport.Scenario run(String name, Workload workload, LoadOptions options) throws Exception {
+		workload.setUp(this);
+		if (!options.warmup().isZero()) {
+			log.info("Warming up {} for {}s", name, options.warmup().toSeconds());
+			drive(workload, options, options.warmup(), new ConcurrentHashMap<>());
+		}
+		resetPeakHeap();
+		log.info("Running {} for {}s with {} clients", name, options.duration().toSeconds(), options.clients());
+		Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+		Map<String, Double> counters = new LinkedHashMap<>();
+		for (String counter : workload.counters()) {
+			counters.put(counter, -counter(counter));
+		}
+		long started = System.nanoTime();
+		long requests = drive(workload, options, options.duration(), stats);
+		double seconds = (System.nanoTime() - started) / 1e9;
+		long peakHeap = peakHeap();
+		for (String counter : workload.counters()) {
+			counters.merge(counter, counter(counter), Double::sum);
+		}
+
+		Map<String, LoadReport.Endpoint> endpoints = new TreeMap<>();
+		stats.forEach((endpoint, s) -> endpoints.put(endpoint, s.toReport(seconds)));
+		List<LoadReport.Check> checks = workload.verify(this);
+		return new LoadReport.Scenario(name, seconds, requests, requests / seconds, peakHeap, endpoints, counters, checks);
+	}
+
+	// current value of an application counter, read through the actuator; 0 before it first counts
+	private double counter(String name) throws IOException, InterruptedException {
+		HttpResponse<String> response = call(request("/actuator/metrics/" + name).build(), HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() == 404) {
+			return 0;
+		}
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Could not read metric " + name + ": " + response.statusCode());
+		}
+		for (JsonNode measurement : objectMapper.readTree(response.body()).get("measurements")) {
+			if ("COUNT".equals(measurement.get("statistic").asText())) {
+				return measurement.get("value").asDouble();
+			}
+		}
+		return 0;
+	}
+
+	private long drive(Workload workload, LoadOptions options, Duration duration, Map<String, EndpointStats> stats)
+			throws InterruptedException {
+		int clients = options.clients();
+		long interval = options.rate() > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * clients / options.rate()) : 0;
+		long start = System.nanoTime();
+		long deadline = start + duration.toNanos();
+		LongAdder requests = new LongAdder();
+		ExecutorService workers = Executors.newFixedThreadPool(clients);
+		for (int i = 0; i < clients; i++) {
+			// spread the schedules so paced clients do not fire in lockstep
+			long first = start + (interval > 0 ? interval * i / clients : 0);
+			workers.execute(() -> {
+				Session session = new Session(stats);
+				long next = first;
+				while (System.nanoTime() < deadline) {
+					if (interval > 0) {
+						long wait = next - System.nanoTime();
+						if (wait > 0) {
+							LockSupport.parkNanos(wait);
+						}
+						session.due = next;
+						next += interval;
+					} else {
+						session.due = System.nanoTime();
+					}
+					try {
+						workload.next(session);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					} catch (Exception e) {
+						log.debug("Request failed: {}", e.toString());
+					}
+					requests.increment();
+				}
+			});
+		}
+		workers.shutdown();
+		if (!workers.awaitTermination(duration.toSeconds() + 180, TimeUnit.SECONDS)) {
+			workers.shutdownNow();
+		}
+		return requests.sum();
+	}
+
+	private static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private static long peakHeap() {
+		long peak = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	/**
+	 * Per-client state; workloads keep what they learn between requests (cursors, ETags) here.
+	 */
+	final class Session {
+		private final Map<String, EndpointStats> stats;
+		private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+		private long due;
+
+		private Session(Map<String, EndpointStats> stats) {
+			this.stats = stats;
+		}
+
+		ThreadLocalRandom random() {
+			return ThreadLocalRandom.current();
+		}
+
+		HttpRequest.Builder request(String path) {
+			return LoadDriver.this.request(path);
+		}
+
+		@SuppressWarnings("unchecked")
+		<T> T attribute(String key) {
+			return (T) attributes.get(key);
+		}
+
+		void attribute(String key, Object value) {
+			if (value == null) {
+				attributes.remove(key);
+			} else {
+				attributes.put(key, value);
+			}
+		}
+
+		/**
+		 * Sends the request and records it under {@code endpoint}; returns null if it failed without a response.
+		 */
+		<T> HttpResponse<T> send(String endpoint, HttpRequest request, HttpResponse.BodyHandler<T> body)
+				throws InterruptedException {
+			EndpointStats endpointStats = stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+			try {
+				HttpResponse<T> response = http.send(request, body);
+				endpointStats.record(response.statusCode(), elapsedMicros());
+				return response;
+			} catch (IOException e) {
+				endpointStats.recordError(elapsedMicros());
+				return null;
+			}
+		}
+
+		private long elapsedMicros() {
+			return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due);
+		}
+	}
+}
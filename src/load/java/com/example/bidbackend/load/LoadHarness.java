@@ -0,0 +1,180 @@
+package com.example.bidbackend.load;
+
+import com.example.bidbackend.BidBackendApplication;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * End-to-end load test: seeds an embedded H2 database through the repositories, boots the application
+ * on a random port and drives the real controllers with the selected scenarios, then writes a JSON
+ * report with throughput and p50/p99/p99.9 latency per endpoint.
+ *
+ * <pre>
+ * mvn -Pload test-compile exec:exec -Dload.args="--products=10000 --bids=200000 --clients=32 --duration=30s"
+ * </pre>
+ *
+ * Scenarios are {@code browse}, {@code storm} (closing-minute bids on a few hot products), {@code upload}
+ * and {@code export}. Client and server share the JVM and the machine, so the numbers are for comparing
+ * builds and settings against each other, not for capacity planning. Unknown arguments go to the
+ * application, e.g. {@code --app.bid-journal.durability=FLUSH} or {@code --spring.threads.virtual.enabled=true}.
+ */
+public final class LoadHarness {
+	private static final Logger log = LoggerFactory.getLogger(LoadHarness.class);
+
+	private LoadHarness() {}
+
+	public static void main(String[] args) throws Exception {
+		LoadOptions options = LoadOptions.parse(args);
+		Path uploads = Files.createTempDirectory("load-uploads-");
+		// system properties sit below command-line arguments, so every one of these can be overridden
+		defaultProperty("spring.datasource.url", "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+		defaultProperty("app.uploads-dir", uploads.toString());
+		defaultProperty("spring.h2.console.enabled", "false");
+		defaultProperty("spring.jpa.properties.hibernate.format_sql", "false");
+		defaultProperty("logging.level.root", "WARN");
+		defaultProperty("logging.level.com.example.bidbackend.load", "INFO");
+		String[] applicationArgs = options.springArgs().toArray(String[]::new);
+		LocalDateTime startedAt = LocalDateTime.now();
+
+		DataSeeder.Seed seed;
+		// the database outlives this context (DB_CLOSE_DELAY=-1); the second one rebuilds its state from it
+		try (ConfigurableApplicationContext seeding = application(WebApplicationType.NONE)
+				.run(withDefault(applicationArgs, "spring.jpa.hibernate.ddl-auto", "create"))) {
+			seed = new DataSeeder(seeding).seed(options.products(), options.bids());
+		}
+
+		List<byte[]> photos = photos();
+		List<LoadReport.Scenario> scenarios = new ArrayList<>();
+		boolean virtualThreads;
+		// every simulated client shares one address, which the per-IP limits would throttle
+		String[] servletArgs = withDefault(withDefault(applicationArgs, "server.port", "0"), "app.rate-limits.enabled", "false");
+		try (ConfigurableApplicationContext app = application(WebApplicationType.SERVLET).run(servletArgs)) {
+			virtualThreads = Threading.VIRTUAL.isActive(app.getEnvironment());
+			int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+			LoadDriver driver = new LoadDriver(port);
+			for (String scenario : options.scenarios()) {
+				Workload workload = switch (scenario) {
+					case "browse" -> new BrowseWorkload(seed);
+					case "storm" -> new BidStormWorkload(options.hotProducts(),
+							options.warmup().plus(options.duration()), photos.get(0));
+					case "upload" -> new UploadWorkload(photos, options.uniqueUploads());
+					case "export" -> new ExportWorkload();
+					default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+				};
+				scenarios.add(driver.run(scenario, workload, options));
+			}
+		}
+
+		LoadReport report = new LoadReport(
+				startedAt,
+				System.getProperty("java.version"),
+				Runtime.getRuntime().availableProcessors(),
+				new LoadReport.Settings(
+						options.products(),
+						options.bids(),
+						options.clients(),
+						options.warmup().toSeconds(),
+						options.duration().toSeconds(),
+						options.rate(),
+						virtualThreads,
+						options.springArgs()
+				),
+				scenarios
+		);
+		write(report, options.report());
+		System.exit(report.scenarios().stream().flatMap(s -> s.checks().stream()).allMatch(LoadReport.Check::passed) ? 0 : 1);
+	}
+
+	private static SpringApplicationBuilder application(WebApplicationType type) {
+		return new SpringApplicationBuilder(BidBackendApplication.class)
+				.web(type)
+				.bannerMode(Banner.Mode.OFF)
+				.logStartupInfo(false);
+	}
+
+	// application.yml outranks default properties, so settings it also makes are passed as arguments
+	private static String[] withDefault(String[] args, String key, String value) {
+		for (String arg : args) {
+			if (arg.startsWith("--" + key + "=")) {
+				return args;
+			}
+		}
+		String[] extended = Arrays.copyOf(args, args.length + 1);
+		extended[args.length] = "--" + key + "=" + value;
+		return extended;
+	}
+
+	private static void defaultProperty(String key, String value) {
+		if (System.getProperty(key) == null) {
+			System.setProperty(key, value);
+		}
+	}
+
+	// noise does not compress, so these come out from a few tens of KB to a few MB
+	private static List<byte[]> photos() throws IOException {
+		Random random = new Random(7);
+		List<byte[]> photos = new ArrayList<>();
+		for (int edge : new int[] {96, 320, 640, 1024}) {
+			BufferedImage image = new BufferedImage(edge, edge * 3 / 4, BufferedImage.TYPE_INT_RGB);
+			for (int y = 0; y < image.getHeight(); y++) {
+				for (int x = 0; x < image.getWidth(); x++) {
+					image.setRGB(x, y, random.nextInt());
+				}
+			}
+			ByteArrayOutputStream png = new ByteArrayOutputStream();
+			ImageIO.write(image, "png", png);
+			photos.add(png.toByteArray());
+		}
+		return photos;
+	}
+
+	private static void write(LoadReport report, Path path) throws IOException {
+		if (path.getParent() != null) {
+			Files.createDirectories(path.getParent());
+		}
+		Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.indentOutput(true)
+				.build()
+				.writeValue(path.toFile(), report);
+
+		StringBuilder summary = new StringBuilder("\n");
+		for (LoadReport.Scenario scenario : report.scenarios()) {
+			summary.append(String.format("%s: %.0f req/s, peak heap %d MB%n",
+					scenario.name(), scenario.throughput(), scenario.peakHeapBytes() >> 20));
+			for (Map.Entry<String, LoadReport.Endpoint> e : scenario.endpoints().entrySet()) {
+				LoadReport.Endpoint endpoint = e.getValue();
+				summary.append(String.format("  %-32s %8d  %8.1f/s  p50 %7.2f  p99 %8.2f  p99.9 %8.2f ms  %s%n",
+						e.getKey(), endpoint.count(), endpoint.throughput(), endpoint.p50Ms(), endpoint.p99Ms(),
+						endpoint.p999Ms(), endpoint.statuses()));
+			}
+			scenario.counters().forEach((counter, value) ->
+					summary.append(String.format("  %-32s %8.0f%n", counter, value)));
+			for (LoadReport.Check check : scenario.checks()) {
+				summary.append(String.format("  [%s] %s: %s%n", check.passed() ? "ok" : "FAILED", check.name(), check.detail()));
+			}
+		}
+		log.info("{}Report written to {}", summary, path.toAbsolutePath());
+	}
+}
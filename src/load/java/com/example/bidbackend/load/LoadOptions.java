@@ -0,0 +1,62 @@
+package com.example.bidbackend.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Harness settings, given as {@code --name=value}. Arguments the harness does not know are handed to
+ * the application unchanged, e.g. {@code --spring.threads.virtual.enabled=true}.
+ */
+record LoadOptions(
+		int products,
+		int bids,
+		int clients,
+		Duration warmup,
+		Duration duration,
+		double rate,
+		List<String> scenarios,
+		int hotProducts,
+		double uniqueUploads,
+		Path report,
+		List<String> springArgs
+) {
+	static LoadOptions parse(String[] args) {
+		int products = 10_000;
+		int bids = 200_000;
+		int clients = 32;
+		Duration warmup = Duration.ofSeconds(10);
+		Duration duration = Duration.ofSeconds(30);
+		double rate = 0;
+		List<String> scenarios = List.of("browse", "storm", "upload", "export");
+		int hotProducts = 5;
+		double uniqueUploads = 0.5;
+		Path report = Path.of("target", "load-report.json");
+		List<String> springArgs = new ArrayList<>();
+
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			String name = arg.startsWith("--") && eq > 0 ? arg.substring(2, eq) : "";
+			String value = eq > 0 ? arg.substring(eq + 1) : "";
+			switch (name) {
+				case "products" -> products = Integer.parseInt(value);
+				case "bids" -> bids = Integer.parseInt(value);
+				case "clients" -> clients = Integer.parseInt(value);
+				case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+				case "duration" -> duration = DurationStyle.detectAndParse(value);
+				case "rate" -> rate = Double.parseDouble(value);
+				case "scenarios" -> scenarios = Arrays.stream(value.split(",")).map(String::trim).toList();
+				case "hot-products" -> hotProducts = Integer.parseInt(value);
+				case "unique-uploads" -> uniqueUploads = Double.parseDouble(value);
+				case "report" -> report = Path.of(value);
+				default -> springArgs.add(arg);
+			}
+		}
+		return new LoadOptions(products, bids, clients, warmup, duration, rate, scenarios, hotProducts,
+				uniqueUploads, report, List.copyOf(springArgs));
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.bidbackend.load;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of a harness run, written as JSON. Latencies are in milliseconds.
+ */
+record LoadReport(
+		LocalDateTime startedAt,
+		String javaVersion,
+		int availableProcessors,
+		Settings settings,
+		List<Scenario> scenarios
+) {
+	record Settings(
+			int products,
+			int bids,
+			int clients,
+			long warmupSeconds,
+			long durationSeconds,
+			double rate,
+			boolean virtualThreads,
+			List<String> applicationArgs
+	) {}
+
+	record Scenario(
+			String name,
+			double seconds,
+			long requests,
+			double throughput,
+			long peakHeapBytes,
+			Map<String, Endpoint> endpoints,
+			Map<String, Double> counters,
+			List<Check> checks
+	) {}
+
+	record Endpoint(
+			long count,
+			double throughput,
+			long errors,
+			Map<String, Long> statuses,
+			double meanMs,
+			double p50Ms,
+			double p99Ms,
+			double p999Ms,
+			double maxMs
+	) {}
+
+	/**
+	 * A consistency check run after a scenario, e.g. that the stored top bid matches the live price.
+	 */
+	record Check(String name, boolean passed, String detail) {}
+}
@@ -0,0 +1,44 @@
+package com.example.bidbackend.load;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Minimal multipart/form-data body for the product form.
+ */
+final class Multipart {
+	private final String boundary = "load-" + UUID.randomUUID();
+	private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+	static Multipart of(Map<String, String> fields) {
+		Multipart multipart = new Multipart();
+		fields.forEach(multipart::field);
+		return multipart;
+	}
+
+	Multipart field(String name, String value) {
+		write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n");
+		return this;
+	}
+
+	Multipart file(String name, String filename, String contentType, byte[] content) {
+		write("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\""
+				+ filename + "\"\r\nContent-Type: " + contentType + "\r\n\r\n");
+		body.writeBytes(content);
+		write("\r\n");
+		return this;
+	}
+
+	HttpRequest.Builder into(HttpRequest.Builder request) {
+		write("--" + boundary + "--\r\n");
+		return request.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+	}
+
+	private void write(String text) {
+		body.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
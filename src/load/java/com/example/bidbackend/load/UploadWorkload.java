@@ -0,0 +1,44 @@
+package com.example.bidbackend.load;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sellers listing products with photos of a few sizes. A share of the uploads carries new bytes (random
+ * data after the PNG end chunk, which decoders ignore); the rest repeat a stored photo and are deduplicated.
+ */
+final class UploadWorkload implements Workload {
+	private final List<byte[]> images;
+	private final double unique;
+
+	UploadWorkload(List<byte[]> images, double unique) {
+		this.images = images;
+		this.unique = unique;
+	}
+
+	@Override
+	public void next(LoadDriver.Session session) throws Exception {
+		byte[] image = images.get(session.random().nextInt(images.size()));
+		if (session.random().nextDouble() < unique) {
+			image = Arrays.copyOf(image, image.length + 16);
+			for (int i = image.length - 16; i < image.length; i++) {
+				image[i] = (byte) session.random().nextInt();
+			}
+		}
+		HttpRequest request = Multipart.of(Map.of(
+						"sellerName", "upload-seller-" + session.random().nextInt(100),
+						"name", "Uploaded lot",
+						"description", "Listed by the upload burst",
+						"startingPrice", "20.00",
+						"endTime", LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS).toString()))
+				.file("image", "photo.png", "image/png", image)
+				.into(session.request("/api/products"))
+				.build();
+		session.send("POST /api/products", request, HttpResponse.BodyHandlers.discarding());
+	}
+}
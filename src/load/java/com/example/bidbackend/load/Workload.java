@@ -0,0 +1,27 @@
+package com.example.bidbackend.load;
+
+import java.util.List;
+
+/**
+ * One kind of traffic. {@link #next} issues exactly one request per call, so its latency is the
+ * latency of that request.
+ */
+interface Workload {
+	default void setUp(LoadDriver driver) throws Exception {}
+
+	void next(LoadDriver.Session session) throws Exception;
+
+	/**
+	 * Application counters (Micrometer names) whose increase over the measured run goes into the report.
+	 */
+	default List<String> counters() {
+		return List.of();
+	}
+
+	/**
+	 * Checks run once the scenario has finished and the application has settled.
+	 */
+	default List<LoadReport.Check> verify(LoadDriver driver) throws Exception {
+		return List.of();
+	}
+}
@@ -0,0 +1,393 @@
+package com.example.bidbackend.auction;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.BidResponse;
+import com.example.bidbackend.dto.ProxyBidResponse;
+import com.example.bidbackend.event.AuctionEvent;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.exception.BidRejectedException;
+import com.example.bidbackend.model.Bid;
+import com.example.bidbackend.model.Product;
+import com.example.bidbackend.model.ProxyBid;
+import com.example.bidbackend.repository.BidRepository;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.repository.ProxyBidRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resident price book for every auction.
+ * Bids are validated against memory only; accepted bids are handed to {@link BidWriteBehind}.
+ *
+ * <p>Every mutation of a product runs under one of a fixed set of lock stripes chosen by product id,
+ * so bids on one product are strictly ordered (including their order in the writer queue) while
+ * bids on products in different stripes proceed in parallel. Readers never lock.
+ * {@link AuctionEvent}s are published under the same stripe, so listeners observe them in order.
+ */
+@Component
+public class AuctionBook implements MeterBinder {
+	private static final Logger log = LoggerFactory.getLogger(AuctionBook.class);
+
+	private final ProductRepository productRepository;
+	private final BidRepository bidRepository;
+	private final ProxyBidRepository proxyBidRepository;
+	private final BidWriteBehind writeBehind;
+	private final BidIds bidIds;
+	private final ApplicationEventPublisher events;
+	private final Map<Long, AuctionSnapshot> auctions = new ConcurrentHashMap<>();
+	private final Map<Long, ProxyLadder> ladders = new ConcurrentHashMap<>();
+	// products being deleted: they take no bids, but stay in the book in case the delete rolls back
+	private final Set<Long> suspended = ConcurrentHashMap.newKeySet();
+	private final BigDecimal bidIncrement;
+	private final ReentrantLock[] stripes;
+	private final LongAdder extensions = new LongAdder();
+	// auctions loaded or created now start at the current time in microseconds, so snapshot versions (and the
+	// live feed's event ids built from them) keep growing across restarts
+	private final long firstVersion = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+
+	public AuctionBook(
+			ProductRepository productRepository,
+			BidRepository bidRepository,
+			ProxyBidRepository proxyBidRepository,
+			BidWriteBehind writeBehind,
+			BidIds bidIds,
+			ApplicationEventPublisher events,
+			AppProperties appProperties
+	) {
+		this.productRepository = productRepository;
+		this.bidRepository = bidRepository;
+		this.proxyBidRepository = proxyBidRepository;
+		this.writeBehind = writeBehind;
+		this.bidIds = bidIds;
+		this.events = events;
+		this.bidIncrement = appProperties.auction().bidIncrement();
+		int size = Integer.highestOneBit(Math.max(1, appProperties.auction().lockStripes() - 1)) << 1;
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	@PostConstruct
+	void rebuild() {
+		writeBehind.replayLog();
+		Map<Long, String> highBidders = new HashMap<>();
+		for (Bid bid : bidRepository.findTopBidPerProduct()) {
+			if (bid.getBidderName() != null) {
+				highBidders.put(bid.getProduct().getId(), bid.getBidderName());
+			}
+		}
+		for (AuctionSeed seed : productRepository.findAuctionSeeds()) {
+			BigDecimal price = seed.topBid() != null ? seed.topBid() : seed.startingPrice();
+			long count = seed.bidCount() != null ? seed.bidCount() : 0;
+			auctions.put(seed.productId(), new AuctionSnapshot(
+					seed.productId(),
+					seed.startingPrice(),
+					price,
+					highBidders.get(seed.productId()),
+					seed.endTime(),
+					count,
+					seed.closedAt() != null,
+					orZero(seed.softCloseWindowSeconds()),
+					orZero(seed.softCloseExtensionSeconds()),
+					firstVersion
+			));
+		}
+		for (ProxyBid proxy : proxyBidRepository.findAllForOpenAuctions()) {
+			ladders.computeIfAbsent(proxy.getProduct().getId(), id -> new ProxyLadder()).put(new ProxyLadder.Entry(
+					proxy.getBidderName(),
+					proxy.getMaxAmount(),
+					proxy.getCreatedAt()
+			));
+		}
+		log.info("Auction book rebuilt with {} products and {} proxy ladders", auctions.size(), ladders.size());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("auction.extensions", extensions, LongAdder::sum)
+				.description("Auction deadlines moved out by a soft-close bid")
+				.register(registry);
+	}
+
+	public AuctionSnapshot get(Long productId) {
+		return auctions.get(productId);
+	}
+
+	public Collection<AuctionSnapshot> snapshots() {
+		return Collections.unmodifiableCollection(auctions.values());
+	}
+
+	/**
+	 * Accepts a bid if it beats the current price of an open auction, then lets registered proxies respond.
+	 * The check, the price update and the hand-off to the writer happen under the product's stripe.
+	 * The response is built from the values accepted there; the writer keeps its own copy of them.
+	 * If the durability mode reports that the bid's row could not be written, the bid is taken back
+	 * (see {@link #revert}) and refused with a conflict.
+	 */
+	public BidResponse accept(Long productId, BigDecimal amount, String bidderName) {
+		ReentrantLock lock = stripeFor(productId);
+		BidResponse bid;
+		BidWriteBehind.Receipt receipt;
+		AuctionSnapshot before;
+		AuctionSnapshot applied;
+		// reserved before locking: fetching the next block of ids is a database round trip
+		try (BidIds.Reservation ids = bidIds.reserve(1 + ProxyLadder.MAX_COUNTERS)) {
+			lock.lock();
+			try {
+				LocalDateTime now = LocalDateTime.now();
+				AuctionSnapshot current = requireOpen(productId, now);
+				if (amount.compareTo(current.currentPrice()) <= 0) {
+					throw new BidRejectedException(BidRejectedException.Reason.TOO_LOW, "Bid must be greater than current price");
+				}
+				long bidId = ids.next();
+				bid = new BidResponse(bidId, amount, now, bidderName);
+				before = current;
+				receipt = apply(current, bidId, amount, bidderName, now);
+				applied = auctions.get(productId);
+				resolveProxies(productId, ids, now);
+			} finally {
+				lock.unlock();
+			}
+		}
+		// waiting outside the stripe lets other bids on the product join the same batch
+		if (!writeBehind.awaitDurable(receipt)) {
+			revert(before, applied);
+			throw new ApiException(HttpStatus.CONFLICT, "Bid could not be recorded");
+		}
+		return bid;
+	}
+
+	/**
+	 * Registers or raises a bidder's hidden maximum and resolves all competing proxies in one step.
+	 */
+	public ProxyBidResponse registerProxy(Long productId, String bidderName, BigDecimal maxAmount) {
+		ReentrantLock lock = stripeFor(productId);
+		try (BidIds.Reservation ids = bidIds.reserve(ProxyLadder.MAX_COUNTERS)) {
+			lock.lock();
+			try {
+				return registerProxy(productId, bidderName, maxAmount, ids);
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	// caller holds the stripe lock
+	private ProxyBidResponse registerProxy(Long productId, String bidderName, BigDecimal maxAmount, BidIds.Reservation ids) {
+		LocalDateTime now = LocalDateTime.now();
+		AuctionSnapshot current = requireOpen(productId, now);
+		if (maxAmount.compareTo(current.currentPrice()) <= 0) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Maximum must be greater than current price");
+		}
+		ProxyLadder ladder = ladders.computeIfAbsent(productId, id -> new ProxyLadder());
+		ProxyLadder.Entry existing = ladder.find(bidderName);
+		if (existing != null && maxAmount.compareTo(existing.maxAmount()) <= 0) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Maximum can only be raised");
+		}
+		ladder.put(new ProxyLadder.Entry(bidderName, maxAmount, now));
+		writeBehind.enqueueProxy(productId, bidderName, maxAmount, now);
+		resolveProxies(productId, ids, now);
+
+		AuctionSnapshot after = auctions.get(productId);
+		return new ProxyBidResponse(
+				productId,
+				bidderName,
+				maxAmount,
+				after.currentPrice(),
+				after.highBidder(),
+				bidderName.equals(after.highBidder())
+		);
+	}
+
+	/**
+	 * Closes the auction if its deadline has been reached.
+	 * Returns the current deadline when it has moved into the future, otherwise null.
+	 */
+	public LocalDateTime closeIfDue(Long productId, LocalDateTime now) {
+		ReentrantLock lock = stripeFor(productId);
+		lock.lock();
+		try {
+			AuctionSnapshot current = auctions.get(productId);
+			if (current == null || current.closed()) {
+				return null;
+			}
+			if (now.isBefore(current.endTime())) {
+				return current.endTime();
+			}
+			AuctionSnapshot closed = current.asClosed();
+			auctions.put(productId, closed);
+			ladders.remove(productId);
+			writeBehind.enqueueClose(productId, now);
+			events.publishEvent(AuctionEvent.of(AuctionEvent.Type.AUCTION_CLOSED, closed, now));
+			return null;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stops taking bids on a product that is about to be deleted. Once this returns no further bid on it
+	 * is handed to the writer; the auction leaves the book when the delete commits, or takes bids again
+	 * after {@link #resume} if it does not.
+	 */
+	public void suspend(Long productId) {
+		ReentrantLock lock = stripeFor(productId);
+		lock.lock();
+		try {
+			suspended.add(productId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void resume(Long productId) {
+		suspended.remove(productId);
+	}
+
+	public void remove(Long productId) {
+		ReentrantLock lock = stripeFor(productId);
+		lock.lock();
+		try {
+			auctions.remove(productId);
+			ladders.remove(productId);
+			suspended.remove(productId);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		Product product = event.product();
+		if (event.type() == ProductChangedEvent.Type.DELETED) {
+			remove(product.getId());
+			return;
+		}
+		ReentrantLock lock = stripeFor(product.getId());
+		lock.lock();
+		try {
+			AuctionSnapshot current = auctions.get(product.getId());
+			if (current != null) {
+				AuctionSnapshot next = current.withListing(
+						product.getStartingPrice(),
+						product.getEndTime(),
+						orZero(product.getSoftCloseWindowSeconds()),
+						orZero(product.getSoftCloseExtensionSeconds())
+				);
+				if (next != current) {
+					auctions.put(product.getId(), next);
+					events.publishEvent(AuctionEvent.of(AuctionEvent.Type.PRICE_CHANGED, next, LocalDateTime.now()));
+				}
+			} else if (event.type() == ProductChangedEvent.Type.CREATED) {
+				auctions.put(product.getId(), new AuctionSnapshot(
+						product.getId(),
+						product.getStartingPrice(),
+						product.getStartingPrice(),
+						null,
+						product.getEndTime(),
+						0,
+						false,
+						orZero(product.getSoftCloseWindowSeconds()),
+						orZero(product.getSoftCloseExtensionSeconds()),
+						firstVersion
+				));
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Takes back a bid whose row could not be written: the auction returns to its state before the bid,
+	 * deadline included, and subscribers get the corrected state. Only done while the bid is still the
+	 * last thing that happened to the auction; once a proxy has answered it or a later bid has beaten it,
+	 * the price no longer rests on it and the book is left as it is.
+	 */
+	private void revert(AuctionSnapshot before, AuctionSnapshot applied) {
+		Long productId = before.productId();
+		ReentrantLock lock = stripeFor(productId);
+		lock.lock();
+		try {
+			if (auctions.get(productId) != applied) {
+				return;
+			}
+			AuctionSnapshot restored = before.restoredAfter(applied);
+			auctions.put(productId, restored);
+			if (!before.endTime().equals(applied.endTime())) {
+				writeBehind.enqueueEndTimeRestore(productId, applied.endTime(), before.endTime());
+			}
+			events.publishEvent(AuctionEvent.of(AuctionEvent.Type.PRICE_CHANGED, restored, LocalDateTime.now()));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private AuctionSnapshot requireOpen(Long productId, LocalDateTime now) {
+		AuctionSnapshot current = auctions.get(productId);
+		if (current == null || suspended.contains(productId)) {
+			throw new BidRejectedException(BidRejectedException.Reason.NOT_FOUND, "Product not found");
+		}
+		if (current.isClosedAt(now)) {
+			throw new BidRejectedException(BidRejectedException.Reason.CLOSED, "Sale time is over. Bidding is closed.");
+		}
+		return current;
+	}
+
+	// caller holds the stripe lock and has already checked that the bid beats the current price
+	private BidWriteBehind.Receipt apply(AuctionSnapshot current, long bidId, BigDecimal amount, String bidderName, LocalDateTime now) {
+		Long productId = current.productId();
+		BidWriteBehind.Receipt receipt = writeBehind.enqueue(productId, bidId, amount, bidderName, now);
+		AuctionSnapshot next = current.withBid(amount, bidderName, now);
+		if (!next.endTime().equals(current.endTime())) {
+			// the closer re-arms itself when it finds the later deadline, so only the column is written
+			writeBehind.enqueueExtension(productId, next.endTime());
+			extensions.increment();
+		}
+		auctions.put(productId, next);
+		events.publishEvent(AuctionEvent.of(AuctionEvent.Type.BID_ACCEPTED, next, now));
+		return receipt;
+	}
+
+	private void resolveProxies(Long productId, BidIds.Reservation ids, LocalDateTime now) {
+		ProxyLadder ladder = ladders.get(productId);
+		if (ladder == null) {
+			return;
+		}
+		AuctionSnapshot current = auctions.get(productId);
+		for (ProxyLadder.Counter counter : ladder.resolve(current.currentPrice(), current.highBidder(), bidIncrement)) {
+			apply(current, ids.next(), counter.amount(), counter.bidderName(), now);
+			current = auctions.get(productId);
+		}
+	}
+
+	private static int orZero(Integer value) {
+		return value != null ? value : 0;
+	}
+
+	private ReentrantLock stripeFor(Long productId) {
+		int h = Long.hashCode(productId);
+		return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+	}
+}
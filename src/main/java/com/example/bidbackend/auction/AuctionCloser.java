@@ -0,0 +1,123 @@
+package com.example.bidbackend.auction;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Closes auctions at their end time. Every open auction has one timer in a {@link TimingWheel};
+ * a single driver thread advances the wheel once per tick and asks {@link AuctionBook} to close
+ * whatever expired. Edits to the end time cancel and re-arm the product's timer.
+ */
+@Component
+public class AuctionCloser implements SmartLifecycle {
+	private static final Logger log = LoggerFactory.getLogger(AuctionCloser.class);
+
+	private final AuctionBook auctionBook;
+	private final WorkerThreads workerThreads;
+	private final long tickMillis;
+	private final TimingWheel<Long> wheel;
+	private final Map<Long, TimingWheel.Timeout<Long>> timers = new ConcurrentHashMap<>();
+
+	private volatile boolean running;
+	private Thread driver;
+
+	public AuctionCloser(AuctionBook auctionBook, WorkerThreads workerThreads, AppProperties appProperties) {
+		this.auctionBook = auctionBook;
+		this.workerThreads = workerThreads;
+		this.tickMillis = appProperties.auction().closeTick().toMillis();
+		this.wheel = new TimingWheel<>(tickMillis, appProperties.auction().closeWheelSize(), System.currentTimeMillis());
+	}
+
+	@Override
+	public void start() {
+		for (AuctionSnapshot snapshot : auctionBook.snapshots()) {
+			if (!snapshot.closed()) {
+				schedule(snapshot.productId(), snapshot.endTime());
+			}
+		}
+		log.info("Auction closer armed with {} pending auctions", wheel.size());
+		running = true;
+		driver = workerThreads.start("auction-closer-", this::run);
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		driver.interrupt();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public int getPhase() {
+		// stop before BidWriteBehind so the last closes are still written
+		return 1;
+	}
+
+	public int pendingCount() {
+		return wheel.size();
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		Product product = event.product();
+		if (event.type() == ProductChangedEvent.Type.DELETED) {
+			TimingWheel.Timeout<Long> timer = timers.remove(product.getId());
+			if (timer != null) {
+				timer.cancel();
+			}
+		} else if (product.getClosedAt() == null) {
+			schedule(product.getId(), product.getEndTime());
+		}
+	}
+
+	private void schedule(Long productId, LocalDateTime endTime) {
+		long deadline = endTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		TimingWheel.Timeout<Long> previous = timers.put(productId, wheel.schedule(productId, deadline));
+		if (previous != null) {
+			previous.cancel();
+		}
+	}
+
+	private void run() {
+		while (running) {
+			for (Long productId : wheel.advanceTo(System.currentTimeMillis())) {
+				fire(productId);
+			}
+			try {
+				Thread.sleep(tickMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private void fire(Long productId) {
+		try {
+			LocalDateTime later = auctionBook.closeIfDue(productId, LocalDateTime.now());
+			if (later != null) {
+				schedule(productId, later);
+			} else {
+				timers.remove(productId);
+			}
+		} catch (RuntimeException e) {
+			log.warn("Failed to close auction {}", productId, e);
+		}
+	}
+}
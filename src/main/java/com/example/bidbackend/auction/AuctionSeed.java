@@ -0,0 +1,18 @@
+package com.example.bidbackend.auction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Row used to rebuild {@link AuctionBook} at startup without loading product or bid entities.
+ */
+public record AuctionSeed(
+		Long productId,
+		BigDecimal startingPrice,
+		LocalDateTime endTime,
+		LocalDateTime closedAt,
+		Integer softCloseWindowSeconds,
+		Integer softCloseExtensionSeconds,
+		BigDecimal topBid,
+		Long bidCount
+) {}
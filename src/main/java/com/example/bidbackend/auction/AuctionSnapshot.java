@@ -0,0 +1,75 @@
+package com.example.bidbackend.auction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of one live auction as held by {@link AuctionBook}.
+ * A new instance is published for every accepted bid, so readers never see a torn state.
+ * {@code version} grows with every change of the auction, bid or not, and orders its states.
+ */
+public record AuctionSnapshot(
+		Long productId,
+		BigDecimal startingPrice,
+		BigDecimal currentPrice,
+		String highBidder,
+		LocalDateTime endTime,
+		long bidCount,
+		boolean closed,
+		int softCloseWindowSeconds,
+		int softCloseExtensionSeconds,
+		long version
+) {
+	/**
+	 * True once the closer has run or the deadline has passed, whichever is observed first.
+	 */
+	public boolean isClosedAt(LocalDateTime now) {
+		return closed || now.isAfter(endTime);
+	}
+
+	public boolean isSoftClose() {
+		return softCloseWindowSeconds > 0 && softCloseExtensionSeconds > 0;
+	}
+
+	/**
+	 * Applies an accepted bid; under soft close a bid inside the closing window extends the deadline.
+	 */
+	AuctionSnapshot withBid(BigDecimal amount, String bidderName, LocalDateTime at) {
+		LocalDateTime end = endTime;
+		if (isSoftClose() && !at.isBefore(endTime.minusSeconds(softCloseWindowSeconds))) {
+			end = endTime.plusSeconds(softCloseExtensionSeconds);
+		}
+		return new AuctionSnapshot(productId, startingPrice, amount, bidderName, end, bidCount + 1, false,
+				softCloseWindowSeconds, softCloseExtensionSeconds, version + 1);
+	}
+
+	/**
+	 * Applies a seller edit. Once bidding has started the deadline can only move out, which also keeps
+	 * soft-close extensions that have not been written to the row yet. Returns this instance if the edit
+	 * changes nothing the book keeps.
+	 */
+	AuctionSnapshot withListing(BigDecimal newStartingPrice, LocalDateTime newEndTime, int newWindow, int newExtension) {
+		BigDecimal price = bidCount == 0 ? newStartingPrice : currentPrice;
+		LocalDateTime end = bidCount == 0 || newEndTime.isAfter(endTime) ? newEndTime : endTime;
+		AuctionSnapshot edited = new AuctionSnapshot(productId, newStartingPrice, price, highBidder, end, bidCount,
+				closed, newWindow, newExtension, version);
+		return edited.equals(this) ? this : edited.withVersion(version + 1);
+	}
+
+	AuctionSnapshot asClosed() {
+		return new AuctionSnapshot(productId, startingPrice, currentPrice, highBidder, endTime, bidCount, true,
+				softCloseWindowSeconds, softCloseExtensionSeconds, version + 1);
+	}
+
+	/**
+	 * This state again, as the change that follows {@code later}.
+	 */
+	AuctionSnapshot restoredAfter(AuctionSnapshot later) {
+		return withVersion(later.version + 1);
+	}
+
+	private AuctionSnapshot withVersion(long newVersion) {
+		return new AuctionSnapshot(productId, startingPrice, currentPrice, highBidder, endTime, bidCount, closed,
+				softCloseWindowSeconds, softCloseExtensionSeconds, newVersion);
+	}
+}
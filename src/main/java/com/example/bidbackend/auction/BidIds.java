@@ -0,0 +1,155 @@
+package com.example.bidbackend.auction;
+
+import com.example.bidbackend.model.Bid;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserves bid ids from the bid sequence before the row is written, so an accepted bid can be answered
+ * with its id while it still waits in {@link BidWriteBehind}. Ids come in blocks of
+ * {@link Bid#ID_ALLOCATION_SIZE}, read the same way as the entity's own generator reads them, so the
+ * database is only asked once per block.
+ *
+ * <p>Callers {@link #reserve} the ids they may need before taking a stripe lock, which is where the
+ * database is asked for more, and then take them under the lock without any I/O. Ids are handed out in
+ * ascending order, so the ids of one product's bids follow the order the book accepted them in.
+ */
+@Component
+public class BidIds {
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+	// guards the fields below; never held across a database call
+	private final ReentrantLock lock = new ReentrantLock();
+	// one fetch at a time, so blocks are queued in the order the sequence handed them out
+	private final ReentrantLock fetchLock = new ReentrantLock();
+	private final Deque<long[]> blocks = new ArrayDeque<>();
+	private String nextValueSql;
+	private long available;
+	private long claimed;
+
+	public BidIds(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	/**
+	 * Makes sure {@code count} ids can be taken from the returned reservation without a database round trip.
+	 * Ids the reservation does not take are returned to the pool when it is closed.
+	 */
+	public Reservation reserve(int count) {
+		lock.lock();
+		try {
+			claimed += count;
+			if (claimed <= available) {
+				return new Reservation(count);
+			}
+		} finally {
+			lock.unlock();
+		}
+		try {
+			refill();
+		} catch (RuntimeException e) {
+			release(count);
+			throw e;
+		}
+		return new Reservation(count);
+	}
+
+	/**
+	 * The first id of a fresh block of {@link Bid#ID_ALLOCATION_SIZE} ids.
+	 */
+	protected long fetchBlock() {
+		if (nextValueSql == null) {
+			nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+					.getJdbcServices()
+					.getDialect()
+					.getSequenceSupport()
+					.getSequenceNextValString(Bid.ID_SEQUENCE);
+		}
+		return jdbcTemplate.queryForObject(nextValueSql, Long.class);
+	}
+
+	private void refill() {
+		fetchLock.lock();
+		try {
+			while (true) {
+				lock.lock();
+				try {
+					if (claimed <= available) {
+						return;
+					}
+				} finally {
+					lock.unlock();
+				}
+				long first = fetchBlock();
+				lock.lock();
+				try {
+					blocks.addLast(new long[] {first, first + Bid.ID_ALLOCATION_SIZE});
+					available += Bid.ID_ALLOCATION_SIZE;
+				} finally {
+					lock.unlock();
+				}
+			}
+		} finally {
+			fetchLock.unlock();
+		}
+	}
+
+	private long take() {
+		lock.lock();
+		try {
+			long[] block = blocks.getFirst();
+			long id = block[0]++;
+			if (block[0] == block[1]) {
+				blocks.removeFirst();
+			}
+			available--;
+			claimed--;
+			return id;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void release(int count) {
+		lock.lock();
+		try {
+			claimed -= count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Ids set aside for one caller. Not thread-safe; it belongs to the thread that reserved it.
+	 */
+	public final class Reservation implements AutoCloseable {
+		private int remaining;
+
+		private Reservation(int count) {
+			this.remaining = count;
+		}
+
+		public long next() {
+			if (remaining == 0) {
+				throw new IllegalStateException("No reserved bid ids left");
+			}
+			remaining--;
+			return take();
+		}
+
+		@Override
+		public void close() {
+			if (remaining > 0) {
+				release(remaining);
+				remaining = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,421 @@
+package com.example.bidbackend.auction;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped log of accepted bids, used to recover bids the write-behind had not
+ * written yet when the process died.
+ *
+ * <p>The log is a sequence of fixed-size segment files named after the first log sequence number (LSN)
+ * they hold. A record is {@code [length][crc32c][body]}, where the body carries the LSN, product id, the
+ * amount as unscaled long plus scale, the timestamp and the bidder. A background flusher forces the
+ * mapped pages to disk; every append that arrives while a force is running is covered by the next one,
+ * so the fsync cost is shared by the whole group.
+ *
+ * <p>The writer records the last LSN it has committed to the database in a checkpoint file. On startup
+ * everything after the checkpoint is handed to {@link #replay}, and segments wholly behind the checkpoint
+ * are unmapped and deleted as it advances. A torn or corrupt record ends the readable log.
+ */
+@Component
+public class BidLog {
+	private static final Logger log = LoggerFactory.getLogger(BidLog.class);
+	private static final int HEADER_BYTES = Integer.BYTES * 2;
+	private static final int FIXED_BODY_BYTES = Long.BYTES * 4 + Integer.BYTES * 3;
+	private static final String SEGMENT_SUFFIX = ".log";
+	// sun.misc.Unsafe#invokeCleaner: a mapping is otherwise only released once its buffer is garbage collected
+	private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+	private final WorkerThreads workerThreads;
+	private final AppProperties.BidLog config;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition appended = lock.newCondition();
+	private final Condition forced = lock.newCondition();
+	private final List<Segment> segments = new ArrayList<>();
+
+	private Path dir;
+	private MappedByteBuffer checkpointBuffer;
+	private long checkpoint;
+	private long nextLsn;
+	private long forcedLsn;
+	private Segment current;
+	// the segment the flusher is forcing outside the lock, which must stay mapped until it is done
+	private Segment forcing;
+	private Thread flusher;
+	private volatile boolean running;
+
+	public BidLog(WorkerThreads workerThreads, AppProperties appProperties) {
+		this.workerThreads = workerThreads;
+		this.config = appProperties.bidLog();
+	}
+
+	/**
+	 * A bid read back from the log.
+	 */
+	public record Entry(long lsn, Long productId, BigDecimal amount, LocalDateTime createdAt, String bidderName) {}
+
+	public boolean isEnabled() {
+		return config.enabled();
+	}
+
+	@PostConstruct
+	void open() throws IOException {
+		if (!config.enabled()) {
+			return;
+		}
+		dir = Path.of(config.dir());
+		Files.createDirectories(dir);
+		try (FileChannel channel = FileChannel.open(dir.resolve("checkpoint"),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			checkpointBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+		}
+		checkpoint = checkpointBuffer.getLong(0);
+
+		long last = checkpoint;
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList()) {
+				Segment segment = Segment.open(file, firstLsnOf(file));
+				long segmentLast = segment.scan(null);
+				if (segmentLast < segment.firstLsn) {
+					// rolled but never written, e.g. a restart without bids; roll() recreates it under the same name
+					Files.delete(file);
+					continue;
+				}
+				segments.add(segment);
+				last = Math.max(last, segmentLast);
+			}
+		}
+		nextLsn = last + 1;
+		forcedLsn = last;
+		current = roll();
+
+		running = true;
+		flusher = workerThreads.start("bid-log-flusher-", this::flushLoop);
+		log.info("Bid log opened in {} at LSN {} (checkpoint {})", dir.toAbsolutePath(), nextLsn, checkpoint);
+	}
+
+	/**
+	 * Appends a bid and returns its LSN, or 0 when the log is disabled. The record is in the page cache
+	 * when this returns; {@link #awaitForced(long)} waits for it to reach the disk.
+	 */
+	public long append(Long productId, BigDecimal amount, LocalDateTime createdAt, String bidderName) {
+		if (!config.enabled()) {
+			return 0;
+		}
+		byte[] bidder = bidderName != null ? bidderName.getBytes(StandardCharsets.UTF_8) : null;
+		int bodyBytes = FIXED_BODY_BYTES + (bidder != null ? bidder.length : 0);
+		BigDecimal stored = amount.stripTrailingZeros();
+		if (stored.scale() < 0) {
+			stored = stored.setScale(0);
+		}
+		long unscaled = stored.unscaledValue().longValueExact();
+
+		lock.lock();
+		try {
+			if (current.buffer.remaining() < HEADER_BYTES + bodyBytes) {
+				current.buffer.force();
+				current = roll();
+				if (current.buffer.remaining() < HEADER_BYTES + bodyBytes) {
+					throw new IllegalStateException("Bid record does not fit in a log segment");
+				}
+			}
+			long lsn = nextLsn++;
+			ByteBuffer body = ByteBuffer.allocate(bodyBytes)
+					.putLong(lsn)
+					.putLong(productId)
+					.putLong(unscaled)
+					.putInt(stored.scale())
+					.putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+					.putInt(createdAt.getNano())
+					.putInt(bidder != null ? bidder.length : -1);
+			if (bidder != null) {
+				body.put(bidder);
+			}
+			CRC32C crc = new CRC32C();
+			crc.update(body.array());
+			current.buffer.putInt(bodyBytes).putInt((int) crc.getValue()).put(body.array());
+			appended.signal();
+			return lsn;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Blocks until the record with the given LSN has been forced to disk.
+	 */
+	public void awaitForced(long lsn) {
+		if (!config.enabled() || lsn <= 0) {
+			return;
+		}
+		lock.lock();
+		try {
+			while (forcedLsn < lsn && running) {
+				forced.awaitUninterruptibly();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Records that every bid up to {@code lsn} is in the database and drops segments that are no longer needed.
+	 */
+	public void checkpoint(long lsn) {
+		if (!config.enabled() || lsn <= checkpoint) {
+			return;
+		}
+		List<Segment> obsolete = new ArrayList<>();
+		lock.lock();
+		try {
+			checkpoint = lsn;
+			// losing a checkpoint update only makes recovery replay a little more, so it is not forced
+			checkpointBuffer.putLong(0, lsn);
+			while (segments.size() > 1 && segments.get(1).firstLsn <= lsn + 1) {
+				Segment segment = segments.remove(0);
+				segment.retired = true;
+				// otherwise the flusher discards it once its force returns
+				if (segment != forcing) {
+					obsolete.add(segment);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		obsolete.forEach(BidLog::discard);
+	}
+
+	/**
+	 * Hands every readable record after the checkpoint to {@code consumer}, oldest first.
+	 */
+	public void replay(Consumer<Entry> consumer) {
+		if (!config.enabled()) {
+			return;
+		}
+		List<Segment> sealed;
+		long from;
+		lock.lock();
+		try {
+			sealed = List.copyOf(segments.subList(0, segments.size() - 1));
+			from = checkpoint;
+		} finally {
+			lock.unlock();
+		}
+		for (Segment segment : sealed) {
+			segment.scan(entry -> {
+				if (entry.lsn() > from) {
+					consumer.accept(entry);
+				}
+			});
+		}
+	}
+
+	@PreDestroy
+	void close() {
+		if (!config.enabled()) {
+			return;
+		}
+		lock.lock();
+		try {
+			running = false;
+			appended.signalAll();
+			forced.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		try {
+			flusher.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		current.buffer.force();
+		checkpointBuffer.force();
+	}
+
+	private void flushLoop() {
+		while (true) {
+			Segment segment;
+			long target;
+			lock.lock();
+			try {
+				while (running && forcedLsn == nextLsn - 1) {
+					appended.awaitUninterruptibly();
+				}
+				if (!running) {
+					return;
+				}
+				segment = current;
+				forcing = segment;
+				target = nextLsn - 1;
+			} finally {
+				lock.unlock();
+			}
+			// segments are forced before they are rolled, so forcing the current one covers the target
+			segment.buffer.force();
+			boolean retired;
+			lock.lock();
+			try {
+				forcedLsn = Math.max(forcedLsn, target);
+				forced.signalAll();
+				forcing = null;
+				retired = segment.retired;
+			} finally {
+				lock.unlock();
+			}
+			if (retired) {
+				discard(segment);
+			}
+		}
+	}
+
+	private static void discard(Segment segment) {
+		if (INVOKE_CLEANER != null) {
+			try {
+				INVOKE_CLEANER.invokeExact((ByteBuffer) segment.buffer);
+			} catch (Throwable e) {
+				log.debug("Could not unmap bid log segment {}: {}", segment.file, e.toString());
+			}
+		}
+		try {
+			Files.deleteIfExists(segment.file);
+		} catch (IOException e) {
+			log.warn("Could not delete bid log segment {}: {}", segment.file, e.getMessage());
+		}
+	}
+
+	private static MethodHandle invokeCleaner() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			return MethodHandles.lookup()
+					.findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+					.bindTo(theUnsafe.get(null));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.info("Deleted bid log segments stay mapped until garbage collected: {}", e.toString());
+			return null;
+		}
+	}
+
+	private Segment roll() {
+		Path file = dir.resolve(String.format("%020d%s", nextLsn, SEGMENT_SUFFIX));
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			Segment segment = new Segment(file, nextLsn,
+					channel.map(FileChannel.MapMode.READ_WRITE, 0, config.segmentSize().toBytes()));
+			segments.add(segment);
+			return segment;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot create bid log segment " + file, e);
+		}
+	}
+
+	private static long firstLsnOf(Path file) {
+		String name = file.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private static final class Segment {
+		private final Path file;
+		private final long firstLsn;
+		private final MappedByteBuffer buffer;
+		// dropped behind the checkpoint; guarded by the log's lock
+		private boolean retired;
+
+		private Segment(Path file, long firstLsn, MappedByteBuffer buffer) {
+			this.file = file;
+			this.firstLsn = firstLsn;
+			this.buffer = buffer;
+		}
+
+		private static Segment open(Path file, long firstLsn) throws IOException {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				return new Segment(file, firstLsn, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			}
+		}
+
+		// reads records until the end of the written part; returns the last valid LSN
+		private long scan(Consumer<Entry> consumer) {
+			ByteBuffer in = buffer.duplicate().position(0);
+			long expected = firstLsn;
+			while (in.remaining() >= HEADER_BYTES) {
+				int length = in.getInt();
+				int crc = in.getInt();
+				if (length < FIXED_BODY_BYTES || length > in.remaining()) {
+					break;
+				}
+				byte[] body = new byte[length];
+				in.get(body);
+				CRC32C check = new CRC32C();
+				check.update(body);
+				if ((int) check.getValue() != crc) {
+					log.warn("Bid log {} ends with a torn record after LSN {}", file.getFileName(), expected - 1);
+					break;
+				}
+				Entry entry = decode(ByteBuffer.wrap(body));
+				if (entry.lsn() != expected) {
+					break;
+				}
+				if (consumer != null) {
+					consumer.accept(entry);
+				}
+				expected++;
+			}
+			return expected - 1;
+		}
+
+		private static Entry decode(ByteBuffer body) {
+			long lsn = body.getLong();
+			long productId = body.getLong();
+			long unscaled = body.getLong();
+			int scale = body.getInt();
+			long seconds = body.getLong();
+			int nanos = body.getInt();
+			int bidderLength = body.getInt();
+			String bidder = null;
+			if (bidderLength >= 0) {
+				byte[] bytes = new byte[bidderLength];
+				body.get(bytes);
+				bidder = new String(bytes, StandardCharsets.UTF_8);
+			}
+			return new Entry(
+					lsn,
+					productId,
+					new BigDecimal(BigInteger.valueOf(unscaled), scale),
+					LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC),
+					bidder
+			);
+		}
+	}
+}
@@ -0,0 +1,491 @@
+package com.example.bidbackend.auction;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.model.Bid;
+import com.example.bidbackend.model.ProxyBid;
+import com.example.bidbackend.repository.BidRepository;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.repository.ProxyBidRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persists bids accepted by {@link AuctionBook} on a single background writer, in acceptance order.
+ * Auction closes go through the same queue, so a close is written only after every bid before it.
+ *
+ * <p>Bids are group-committed: the writer collects up to {@code flush-size} queued bids, waiting at most
+ * {@code linger} for more, and inserts them in one transaction as a JDBC batch. If a batch fails, its
+ * bids are retried one by one so a single bad row does not take the rest down with it.
+ *
+ * <p>When the {@link BidLog} is enabled every bid is appended to it before it is queued, and the log's
+ * checkpoint follows the batches as they commit, so bids lost in a crash are replayed on the next start.
+ * It never passes a bid that was dropped, so that one is retried on the next start as well, except in
+ * {@code FLUSH} mode: there the bidder is told the bid failed and the book takes it back.
+ */
+@Component
+public class BidWriteBehind implements SmartLifecycle, MeterBinder {
+	private static final Logger log = LoggerFactory.getLogger(BidWriteBehind.class);
+
+	private final ProductRepository productRepository;
+	private final BidRepository bidRepository;
+	private final ProxyBidRepository proxyBidRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final BidLog bidLog;
+	private final AppProperties.BidJournal config;
+	private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+	// keeps queue order equal to LSN order, which is what lets the checkpoint simply follow the writer
+	private final ReentrantLock appendLock = new ReentrantLock();
+
+	private final WorkerThreads workerThreads;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private volatile boolean running;
+	private Thread writer;
+	// writer thread only
+	private boolean checkpointHeld;
+
+	public BidWriteBehind(
+			ProductRepository productRepository,
+			BidRepository bidRepository,
+			ProxyBidRepository proxyBidRepository,
+			TransactionTemplate transactionTemplate,
+			BidLog bidLog,
+			WorkerThreads workerThreads,
+			AppProperties appProperties
+	) {
+		this.productRepository = productRepository;
+		this.bidRepository = bidRepository;
+		this.proxyBidRepository = proxyBidRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.bidLog = bidLog;
+		this.workerThreads = workerThreads;
+		this.config = appProperties.bidJournal();
+		if (config.durability() == AppProperties.BidJournal.Durability.LOG && !bidLog.isEnabled()) {
+			throw new IllegalStateException("app.bid-journal.durability=LOG requires app.bid-log.enabled=true");
+		}
+	}
+
+	/**
+	 * A queued bid: its position in the bid log (0 when the log is off) and the future of its row.
+	 */
+	public record Receipt(long lsn, CompletableFuture<Void> written) {}
+
+	/**
+	 * Logs and queues a bid under its reserved id; the receipt's future completes once its row has committed.
+	 */
+	public Receipt enqueue(Long productId, long bidId, BigDecimal amount, String bidderName, LocalDateTime at) {
+		CompletableFuture<Void> written = new CompletableFuture<>();
+		appendLock.lock();
+		try {
+			long lsn = bidLog.append(productId, amount, at, bidderName);
+			queue.add(new BidTask(productId, bidId, amount, bidderName, at, lsn, written));
+			return new Receipt(lsn, written);
+		} finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 * Applies the configured durability: returns at once in {@code ENQUEUE} mode, waits for the log
+	 * record to be forced in {@code LOG} mode and for the bid's batch to commit in {@code FLUSH} mode.
+	 *
+	 * @return false if the bid's row could not be written, which is only reported in {@code FLUSH} mode
+	 */
+	public boolean awaitDurable(Receipt receipt) {
+		if (!running) {
+			return true;
+		}
+		switch (config.durability()) {
+			case ENQUEUE -> {
+			}
+			case LOG -> bidLog.awaitForced(receipt.lsn());
+			case FLUSH -> {
+				try {
+					receipt.written().join();
+				} catch (CompletionException e) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes bids found in the bid log after its checkpoint that are not in the table yet, and re-applies
+	 * the soft-close extensions they caused. Runs once at startup, before the auction book reads the tables.
+	 */
+	public void replayLog() {
+		if (!bidLog.isEnabled()) {
+			return;
+		}
+		// a first pass finds each product's lowest logged amount, so the amounts already stored can be read
+		// with one query per product instead of one per record
+		Map<Long, BigDecimal> lowest = new HashMap<>();
+		bidLog.replay(entry -> lowest.merge(entry.productId(), entry.amount(), BigDecimal::min));
+		Map<Long, Optional<ReplayedAuction>> auctions = new HashMap<>();
+		List<Bid> pending = new ArrayList<>();
+		long[] last = {0};
+		int[] restored = {0};
+		bidLog.replay(entry -> {
+			last[0] = entry.lsn();
+			ReplayedAuction auction = auctions
+					.computeIfAbsent(entry.productId(), id -> loadForReplay(id, lowest.get(id)))
+					.orElse(null);
+			// skip bids on deleted products, on products created after the bid (a wiped database reuses ids)
+			// and bids the writer did commit before the checkpoint caught up
+			if (auction == null || entry.createdAt().isBefore(auction.createdAt)
+					|| auction.stored.contains(entry.amount())) {
+				return;
+			}
+			Bid bid = new Bid();
+			bid.setProduct(productRepository.getReferenceById(entry.productId()));
+			bid.setAmount(entry.amount());
+			bid.setCreatedAt(entry.createdAt());
+			bid.setBidderName(entry.bidderName());
+			pending.add(bid);
+			auction.snapshot = auction.snapshot.withBid(entry.amount(), entry.bidderName(), entry.createdAt());
+			if (pending.size() >= config.flushSize()) {
+				restored[0] += saveReplayed(pending);
+			}
+		});
+		restored[0] += saveReplayed(pending);
+		auctions.forEach((productId, auction) -> auction
+				.filter(a -> a.snapshot.endTime().isAfter(a.endTime))
+				.ifPresent(a -> extend(new ExtendTask(productId, a.snapshot.endTime()))));
+		bidLog.checkpoint(last[0]);
+		if (restored[0] > 0) {
+			log.info("Restored {} bids from the bid log", restored[0]);
+		}
+	}
+
+	public void enqueueProxy(Long productId, String bidderName, BigDecimal maxAmount, LocalDateTime at) {
+		queue.add(new ProxyTask(productId, bidderName, maxAmount, at));
+	}
+
+	public void enqueueExtension(Long productId, LocalDateTime endTime) {
+		queue.add(new ExtendTask(productId, endTime));
+	}
+
+	/**
+	 * Moves the deadline back from {@code extended} to {@code restored}, unless it has changed again since.
+	 */
+	public void enqueueEndTimeRestore(Long productId, LocalDateTime extended, LocalDateTime restored) {
+		queue.add(new RestoreEndTask(productId, extended, restored));
+	}
+
+	public void enqueueClose(Long productId, LocalDateTime closedAt) {
+		queue.add(new CloseTask(productId, closedAt));
+	}
+
+	/**
+	 * Blocks until every bid enqueued before this call has been written.
+	 */
+	public void awaitDrained() {
+		CompletableFuture<Void> barrier = new CompletableFuture<>();
+		queue.add(new Barrier(barrier));
+		if (running) {
+			barrier.join();
+		}
+	}
+
+	@Override
+	public void start() {
+		running = true;
+		writer = workerThreads.start("bid-write-behind-", this::run);
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public int getPhase() {
+		// start before and stop after the web server, so requests in flight at shutdown are still written
+		return 0;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("bids.write-behind.queue", queue, BlockingQueue::size)
+				.description("Bids and auction updates waiting to be written")
+				.register(registry);
+	}
+
+	private void run() {
+		List<Task> batch = new ArrayList<>(config.flushSize());
+		while (running || !queue.isEmpty()) {
+			try {
+				collect(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			process(batch);
+			batch.clear();
+		}
+	}
+
+	// takes the next task, then keeps taking bids until the batch is full or the linger time is up
+	private void collect(List<Task> batch) throws InterruptedException {
+		Task first = queue.poll(100, TimeUnit.MILLISECONDS);
+		if (first == null) {
+			return;
+		}
+		batch.add(first);
+		long deadline = System.nanoTime() + config.linger().toNanos();
+		int bids = first instanceof BidTask ? 1 : 0;
+		while (bids < config.flushSize()) {
+			Task next = queue.poll();
+			if (next == null) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+					return;
+				}
+			}
+			batch.add(next);
+			if (next instanceof BidTask) {
+				bids++;
+			}
+		}
+	}
+
+	private void process(List<Task> batch) {
+		List<BidTask> bids = new ArrayList<>();
+		List<Barrier> barriers = new ArrayList<>();
+		for (Task task : batch) {
+			if (task instanceof BidTask bidTask) {
+				bids.add(bidTask);
+			} else if (task instanceof Barrier barrier) {
+				// a barrier only needs the writes queued before it, so it can wait for the end of the batch
+				barriers.add(barrier);
+			} else {
+				// everything else touches rows the pending bids may refer to, so flush them first
+				write(bids);
+				bids.clear();
+				if (task instanceof ProxyTask proxyTask) {
+					saveProxy(proxyTask);
+				} else if (task instanceof ExtendTask extendTask) {
+					extend(extendTask);
+				} else if (task instanceof RestoreEndTask restoreTask) {
+					restoreEnd(restoreTask);
+				} else if (task instanceof CloseTask closeTask) {
+					close(closeTask);
+				}
+			}
+		}
+		write(bids);
+		barriers.forEach(b -> b.done().complete(null));
+		if (checkpointHeld || !bidLog.isEnabled()) {
+			return;
+		}
+		// in FLUSH mode a dropped bid has been refused to its bidder, so replaying it would be wrong
+		boolean holdForDropped = config.durability() != AppProperties.BidJournal.Durability.FLUSH;
+		long lsn = 0;
+		for (Task task : batch) {
+			if (task instanceof BidTask bidTask) {
+				if (holdForDropped && bidTask.written().isCompletedExceptionally()) {
+					// the checkpoint may only pass bids that are in the table, so it stays in front of a dropped
+					// one until the next start, whose replay retries it and skips those written since
+					log.warn("Bid log checkpoint held before LSN {}, whose bid was dropped", bidTask.lsn());
+					checkpointHeld = true;
+					break;
+				}
+				lsn = bidTask.lsn();
+			}
+		}
+		bidLog.checkpoint(lsn);
+	}
+
+	private void write(List<BidTask> bids) {
+		if (bids.isEmpty()) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				for (BidTask task : bids) {
+					// a new entity per attempt, persisted rather than merged, so the reserved id costs no select
+					Bid bid = new Bid();
+					bid.setId(task.bidId());
+					bid.setProduct(productRepository.getReferenceById(task.productId()));
+					bid.setAmount(task.amount());
+					bid.setBidderName(task.bidderName());
+					bid.setCreatedAt(task.at());
+					entityManager.persist(bid);
+				}
+			});
+			bids.forEach(task -> task.written().complete(null));
+		} catch (RuntimeException e) {
+			if (bids.size() == 1) {
+				drop(bids.get(0), e);
+				return;
+			}
+			log.warn("Bid batch of {} failed, retrying row by row: {}", bids.size(), e.getMessage());
+			for (BidTask task : bids) {
+				write(List.of(task));
+			}
+		}
+	}
+
+	private Optional<ReplayedAuction> loadForReplay(Long productId, BigDecimal lowestLogged) {
+		return productRepository.findById(productId).map(product -> new ReplayedAuction(
+				product.getCreatedAt(),
+				product.getEndTime(),
+				// compared by value: the column's scale differs from the log's
+				new TreeSet<>(bidRepository.findAmountsFrom(productId, lowestLogged)),
+				new AuctionSnapshot(
+						productId,
+						product.getStartingPrice(),
+						product.getStartingPrice(),
+						null,
+						product.getEndTime(),
+						0,
+						false,
+						product.getSoftCloseWindowSeconds() != null ? product.getSoftCloseWindowSeconds() : 0,
+						product.getSoftCloseExtensionSeconds() != null ? product.getSoftCloseExtensionSeconds() : 0,
+						0
+				)
+		));
+	}
+
+	private int saveReplayed(List<Bid> bids) {
+		int count = bids.size();
+		if (count > 0) {
+			transactionTemplate.executeWithoutResult(status -> bidRepository.saveAll(bids));
+			bids.clear();
+		}
+		return count;
+	}
+
+	private void drop(BidTask task, RuntimeException e) {
+		// the product was most likely deleted after the bid was accepted
+		log.warn("Dropping bid for product {}: {}", task.productId(), e.getMessage());
+		task.written().completeExceptionally(e);
+	}
+
+	private void saveProxy(ProxyTask task) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				ProxyBid proxy = proxyBidRepository.findByProductIdAndBidderName(task.productId(), task.bidderName())
+						.orElseGet(() -> {
+							ProxyBid created = new ProxyBid();
+							created.setProduct(productRepository.getReferenceById(task.productId()));
+							created.setBidderName(task.bidderName());
+							return created;
+						});
+				proxy.setMaxAmount(task.maxAmount());
+				proxy.setCreatedAt(task.at());
+				proxyBidRepository.save(proxy);
+			});
+		} catch (RuntimeException e) {
+			log.warn("Dropping proxy bid for product {}: {}", task.productId(), e.getMessage());
+		}
+	}
+
+	private void extend(ExtendTask task) {
+		try {
+			transactionTemplate.executeWithoutResult(
+					status -> productRepository.extendEndTime(task.productId(), task.endTime()));
+		} catch (RuntimeException e) {
+			log.warn("Failed to extend product {}: {}", task.productId(), e.getMessage());
+		}
+	}
+
+	private void restoreEnd(RestoreEndTask task) {
+		try {
+			transactionTemplate.executeWithoutResult(
+					status -> productRepository.restoreEndTime(task.productId(), task.extended(), task.restored()));
+		} catch (RuntimeException e) {
+			log.warn("Failed to restore end time of product {}: {}", task.productId(), e.getMessage());
+		}
+	}
+
+	private void close(CloseTask task) {
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				Bid winner = bidRepository.findTopByProductIdOrderByAmountDescCreatedAtDesc(task.productId()).orElse(null);
+				productRepository.markClosed(
+						task.productId(),
+						task.closedAt(),
+						winner != null ? winner.getAmount() : null,
+						winner
+				);
+			});
+		} catch (RuntimeException e) {
+			log.warn("Failed to record close of product {}: {}", task.productId(), e.getMessage());
+		}
+	}
+
+	private sealed interface Task permits BidTask, ProxyTask, ExtendTask, RestoreEndTask, CloseTask, Barrier {}
+
+	private record BidTask(
+			Long productId,
+			long bidId,
+			BigDecimal amount,
+			String bidderName,
+			LocalDateTime at,
+			long lsn,
+			CompletableFuture<Void> written
+	) implements Task {}
+
+	private record ProxyTask(Long productId, String bidderName, BigDecimal maxAmount, LocalDateTime at) implements Task {}
+
+	private record ExtendTask(Long productId, LocalDateTime endTime) implements Task {}
+
+	private record RestoreEndTask(Long productId, LocalDateTime extended, LocalDateTime restored) implements Task {}
+
+	private record CloseTask(Long productId, LocalDateTime closedAt) implements Task {}
+
+	private record Barrier(CompletableFuture<Void> done) implements Task {}
+
+	private static final class ReplayedAuction {
+		private final LocalDateTime createdAt;
+		private final LocalDateTime endTime;
+		private final Set<BigDecimal> stored;
+		private AuctionSnapshot snapshot;
+
+		private ReplayedAuction(LocalDateTime createdAt, LocalDateTime endTime, Set<BigDecimal> stored, AuctionSnapshot snapshot) {
+			this.createdAt = createdAt;
+			this.endTime = endTime;
+			this.stored = stored;
+			this.snapshot = snapshot;
+		}
+	}
+}
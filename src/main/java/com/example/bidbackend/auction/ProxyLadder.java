@@ -0,0 +1,83 @@
+package com.example.bidbackend.auction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hidden maximums registered for one product, highest first (earlier registration wins ties).
+ * Not thread-safe: {@link AuctionBook} only touches a ladder under the product's stripe lock.
+ */
+class ProxyLadder {
+	private static final Comparator<Entry> ORDER = Comparator
+			.comparing(Entry::maxAmount, Comparator.reverseOrder())
+			.thenComparing(Entry::registeredAt);
+
+	// resolve() never places more visible bids than this in one step
+	static final int MAX_COUNTERS = 2;
+
+	private final List<Entry> entries = new ArrayList<>(2);
+
+	record Entry(String bidderName, BigDecimal maxAmount, LocalDateTime registeredAt) {}
+
+	record Counter(String bidderName, BigDecimal amount) {}
+
+	Entry find(String bidderName) {
+		for (Entry e : entries) {
+			if (e.bidderName().equals(bidderName)) {
+				return e;
+			}
+		}
+		return null;
+	}
+
+	void put(Entry entry) {
+		entries.removeIf(e -> e.bidderName().equals(entry.bidderName()));
+		entries.add(entry);
+		entries.sort(ORDER);
+	}
+
+	boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	/**
+	 * Resolves every competing proxy in one step against the visible state.
+	 * Only the two highest bidders matter: the runner-up's ceiling becomes visible (it has been beaten)
+	 * and the leader then sits one increment above it, capped at its own maximum.
+	 *
+	 * @return the visible bids to place, in order; each is strictly above the one before
+	 */
+	List<Counter> resolve(BigDecimal price, String leader, BigDecimal increment) {
+		if (entries.isEmpty()) {
+			return List.of();
+		}
+		Entry top = entries.get(0);
+		Entry runnerUp = entries.size() > 1 ? entries.get(1) : null;
+		boolean topLeads = Objects.equals(top.bidderName(), leader);
+		boolean runnerUpCompetes = runnerUp != null && runnerUp.maxAmount().compareTo(price) > 0;
+
+		if (topLeads && !runnerUpCompetes) {
+			return List.of();
+		}
+		if (!topLeads && top.maxAmount().compareTo(price) <= 0) {
+			return List.of();
+		}
+
+		List<Counter> counters = new ArrayList<>(MAX_COUNTERS);
+		BigDecimal challenge = price;
+		if (runnerUpCompetes) {
+			if (runnerUp.maxAmount().compareTo(top.maxAmount()) == 0) {
+				// equal maximums: the earlier registration takes it at that amount
+				return List.of(new Counter(top.bidderName(), top.maxAmount()));
+			}
+			counters.add(new Counter(runnerUp.bidderName(), runnerUp.maxAmount()));
+			challenge = runnerUp.maxAmount();
+		}
+		counters.add(new Counter(top.bidderName(), top.maxAmount().min(challenge.add(increment))));
+		return counters;
+	}
+}
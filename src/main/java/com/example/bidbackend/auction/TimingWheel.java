@@ -0,0 +1,198 @@
+package com.example.bidbackend.auction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hierarchical timing wheel with O(1) schedule and cancel.
+ *
+ * <p>Level 0 has one bucket per tick; each higher level has buckets that span a full revolution of the
+ * level below. A timer lands in the lowest level whose range covers its delay and is cascaded one level
+ * down whenever the lower wheel wraps around, the same scheme as the classic kernel timer wheels.
+ * The wheel is not self-driving: the owner calls {@link #advanceTo(long)} from a single thread.
+ */
+public class TimingWheel<T> {
+	private static final int LEVELS = 4;
+
+	private final long tickMillis;
+	private final long startMillis;
+	private final int bits;
+	private final int mask;
+	private final Bucket<T>[][] levels;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private long currentTick;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+		if (tickMillis <= 0 || wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+			throw new IllegalArgumentException("tick must be positive and wheel size a power of two");
+		}
+		this.tickMillis = tickMillis;
+		this.startMillis = startMillis;
+		this.bits = Integer.numberOfTrailingZeros(wheelSize);
+		this.mask = wheelSize - 1;
+		this.levels = new Bucket[LEVELS][wheelSize];
+		for (Bucket<T>[] level : levels) {
+			for (int i = 0; i < wheelSize; i++) {
+				level[i] = new Bucket<>();
+			}
+		}
+	}
+
+	/**
+	 * Schedules {@code payload} to expire at {@code deadlineMillis} (epoch millis).
+	 * Deadlines in the past expire on the next advance.
+	 */
+	public Timeout<T> schedule(T payload, long deadlineMillis) {
+		long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+		Timeout<T> timeout = new Timeout<>(this, payload, deadlineTick);
+		lock.lock();
+		try {
+			if (timeout.deadlineTick <= currentTick) {
+				timeout.deadlineTick = currentTick + 1;
+			}
+			place(timeout);
+			size++;
+		} finally {
+			lock.unlock();
+		}
+		return timeout;
+	}
+
+	/**
+	 * Moves the wheel forward to {@code nowMillis} and returns every payload that expired on the way.
+	 */
+	public List<T> advanceTo(long nowMillis) {
+		long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+		List<T> expired = new ArrayList<>();
+		lock.lock();
+		try {
+			while (currentTick < targetTick) {
+				currentTick++;
+				cascade();
+				Bucket<T> bucket = levels[0][(int) (currentTick & mask)];
+				for (Timeout<T> t = bucket.head; t != null; ) {
+					Timeout<T> next = t.next;
+					bucket.unlink(t);
+					size--;
+					expired.add(t.payload);
+					t = next;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		return expired;
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return size;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void cascade() {
+		// when level L wraps to slot 0, pull the current slot of level L + 1 down into the lower levels
+		int level = 0;
+		while (level < LEVELS - 1 && ((currentTick >> (bits * level)) & mask) == 0) {
+			level++;
+		}
+		for (int l = level; l >= 1; l--) {
+			Bucket<T> bucket = levels[l][(int) ((currentTick >> (bits * l)) & mask)];
+			for (Timeout<T> t = bucket.head; t != null; ) {
+				Timeout<T> next = t.next;
+				bucket.unlink(t);
+				place(t);
+				t = next;
+			}
+		}
+	}
+
+	private void place(Timeout<T> timeout) {
+		long delta = timeout.deadlineTick - currentTick;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= (1L << (bits * (level + 1)))) {
+			level++;
+		}
+		long tick = Math.min(timeout.deadlineTick, currentTick + (1L << (bits * LEVELS)) - 1);
+		levels[level][(int) ((tick >> (bits * level)) & mask)].append(timeout);
+	}
+
+	/**
+	 * Handle to a scheduled timer.
+	 */
+	public static final class Timeout<T> {
+		private final TimingWheel<T> wheel;
+		private final T payload;
+		private long deadlineTick;
+		private Bucket<T> bucket;
+		private Timeout<T> prev;
+		private Timeout<T> next;
+
+		private Timeout(TimingWheel<T> wheel, T payload, long deadlineTick) {
+			this.wheel = wheel;
+			this.payload = payload;
+			this.deadlineTick = deadlineTick;
+		}
+
+		public T payload() {
+			return payload;
+		}
+
+		/**
+		 * Removes the timer if it has not fired yet; returns whether it was still pending.
+		 */
+		public boolean cancel() {
+			wheel.lock.lock();
+			try {
+				if (bucket == null) {
+					return false;
+				}
+				bucket.unlink(this);
+				wheel.size--;
+				return true;
+			} finally {
+				wheel.lock.unlock();
+			}
+		}
+	}
+
+	private static final class Bucket<T> {
+		private Timeout<T> head;
+		private Timeout<T> tail;
+
+		private void append(Timeout<T> t) {
+			t.bucket = this;
+			t.prev = tail;
+			t.next = null;
+			if (tail == null) {
+				head = t;
+			} else {
+				tail.next = t;
+			}
+			tail = t;
+		}
+
+		private void unlink(Timeout<T> t) {
+			if (t.prev == null) {
+				head = t.next;
+			} else {
+				t.prev.next = t.next;
+			}
+			if (t.next == null) {
+				tail = t.prev;
+			} else {
+				t.next.prev = t.prev;
+			}
+			t.prev = null;
+			t.next = null;
+			t.bucket = null;
+		}
+	}
+}
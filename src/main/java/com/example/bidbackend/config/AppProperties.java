@@ -1,12 +1,173 @@
 package com.example.bidbackend.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
 
 @ConfigurationProperties(prefix = "app")
 public record AppProperties(
 		String uploadsDir,
 		String baseUrl,
-		Cors cors
+		Cors cors,
+		@DefaultValue Auction auction,
+		@DefaultValue Paging paging,
+		@DefaultValue LiveFeed liveFeed,
+		@DefaultValue BidJournal bidJournal,
+		@DefaultValue BidLog bidLog,
+		@DefaultValue ProductCache productCache,
+		@DefaultValue CatalogCache catalogCache,
+		@DefaultValue Images images,
+		@DefaultValue UploadServing uploadServing,
+		@DefaultValue Storage storage,
+		@DefaultValue Metrics metrics,
+		@DefaultValue Search search,
+		@DefaultValue Rankings rankings,
+		@DefaultValue RateLimits rateLimits,
+		@DefaultValue Idempotency idempotency,
+		@DefaultValue BulkIngest bulkIngest
 ) {
 	public record Cors(String[] allowedOrigins) {}
+
+	public record Auction(
+			@DefaultValue("256") int lockStripes,
+			@DefaultValue("100ms") Duration closeTick,
+			@DefaultValue("256") int closeWheelSize,
+			@DefaultValue("1.00") BigDecimal bidIncrement
+	) {}
+
+	public record Paging(
+			@DefaultValue("50") int defaultLimit,
+			@DefaultValue("200") int maxLimit
+	) {
+		public int resolve(Integer requested) {
+			if (requested == null || requested <= 0) {
+				return defaultLimit;
+			}
+			return Math.min(requested, maxLimit);
+		}
+	}
+
+	public record LiveFeed(
+			@DefaultValue("64") int subscriberBuffer,
+			@DefaultValue("8") int senderThreads,
+			@DefaultValue("50") int maxProductsPerSubscription,
+			@DefaultValue("20s") Duration heartbeat,
+			@DefaultValue("30m") Duration connectionTimeout,
+			@DefaultValue("2s") Duration writeTimeout
+	) {}
+
+	public record BidJournal(
+			@DefaultValue("500") int flushSize,
+			@DefaultValue("5ms") Duration linger,
+			@DefaultValue("ENQUEUE") Durability durability
+	) {
+		public enum Durability {
+			/** Acknowledge a bid once it is queued; a crash loses what has not been flushed yet. */
+			ENQUEUE,
+			/** Acknowledge a bid once it is forced to the bid log; requires {@code app.bid-log.enabled}. */
+			LOG,
+			/** Acknowledge a bid only after the batch holding it has committed. */
+			FLUSH
+		}
+	}
+
+	public record BidLog(
+			@DefaultValue("false") boolean enabled,
+			@DefaultValue("./data/bid-log") String dir,
+			@DefaultValue("64MB") DataSize segmentSize
+	) {}
+
+	public record ProductCache(
+			@DefaultValue("10000") long maximumSize,
+			@DefaultValue("10m") Duration ttl
+	) {}
+
+	public record CatalogCache(
+			@DefaultValue("32MB") DataSize maxSize
+	) {}
+
+	public record Images(
+			@DefaultValue("2") int workerThreads,
+			@DefaultValue("200") int queueCapacity,
+			@DefaultValue("240") int thumbnailSize,
+			@DefaultValue("960") int mediumSize,
+			@DefaultValue("40000000") long maxPixels,
+			@DefaultValue("10MB") DataSize maxUploadSize
+	) {}
+
+	public record UploadServing(
+			@DefaultValue("365d") Duration maxAge,
+			@DefaultValue("64KB") DataSize smallFileMaxSize,
+			@DefaultValue("16MB") DataSize smallFileCacheSize
+	) {}
+
+	public record Storage(
+			@DefaultValue("true") boolean gcEnabled,
+			@DefaultValue("10m") Duration gcInterval,
+			@DefaultValue("1h") Duration gcGrace
+	) {}
+
+	public record Metrics(
+			@DefaultValue("20") int statementWarnThreshold
+	) {}
+
+	public record Search(
+			@DefaultValue("2") int minPrefixLength,
+			@DefaultValue("64") int maxPrefixTerms
+	) {}
+
+	public record Rankings(
+			@DefaultValue("1h") Duration hotWindow,
+			@DefaultValue("12") int hotBuckets,
+			@DefaultValue("5s") Duration hotRefresh,
+			@DefaultValue("100") int hotSize
+	) {}
+
+	public record RateLimits(
+			@DefaultValue("true") boolean enabled,
+			@DefaultValue("1000000") long maxKeys,
+			@DefaultValue("10m") Duration idleExpiry,
+			Map<String, Route> routes
+	) {
+		/**
+		 * {@code path} is a Spring MVC pattern; {@code perIpAndProduct} applies when it has an {@code {id}} variable.
+		 */
+		public record Route(String method, String path, Limit perIp, Limit perIpAndProduct) {}
+
+		/**
+		 * Sustained rate, and how many requests may arrive at once after a quiet period. The burst includes
+		 * the request being admitted, so it is at least 1; 0 would refuse every request.
+		 */
+		public record Limit(
+				@DefaultValue("5") double perSecond,
+				@DefaultValue("10") int burst
+		) {
+			public Limit {
+				if (!(perSecond > 0) || burst < 1) {
+					throw new IllegalArgumentException("A rate limit needs per-second > 0 and burst >= 1");
+				}
+			}
+		}
+
+		public Map<String, Route> routes() {
+			return routes != null ? routes : Map.of();
+		}
+	}
+
+	public record Idempotency(
+			@DefaultValue("24h") Duration ttl,
+			@DefaultValue("16MB") DataSize maxSize,
+			@DefaultValue("255") int maxKeyLength
+	) {}
+
+	public record BulkIngest(
+			@DefaultValue("500") int batchSize,
+			@DefaultValue("4") int imageThreads,
+			@DefaultValue("100000") int maxRows,
+			@DefaultValue("1GB") DataSize maxRequestSize
+	) {}
 }
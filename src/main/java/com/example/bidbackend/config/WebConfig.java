@@ -1,27 +1,60 @@
 package com.example.bidbackend.config;
 
+import com.example.bidbackend.metrics.RequestMetricsInterceptor;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.nio.file.Path;
-
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 	private final AppProperties appProperties;
+	private final RequestMetricsInterceptor requestMetricsInterceptor;
 
-	public WebConfig(AppProperties appProperties) {
+	public WebConfig(AppProperties appProperties, RequestMetricsInterceptor requestMetricsInterceptor) {
 		this.appProperties = appProperties;
+		this.requestMetricsInterceptor = requestMetricsInterceptor;
+	}
+
+	/**
+	 * Serves the bulk ingest route from its own dispatcher, because the servlet container applies multipart
+	 * limits per servlet: archives get {@code app.bulk-ingest.max-request-size} while every other upload
+	 * keeps the {@code spring.servlet.multipart} limits.
+	 */
+	@Bean
+	public ServletRegistrationBean<DispatcherServlet> bulkIngestServlet(
+			WebApplicationContext context,
+			WebMvcProperties webMvcProperties,
+			MultipartProperties multipartProperties
+	) {
+		DispatcherServlet servlet = new DispatcherServlet(context);
+		servlet.setDispatchOptionsRequest(webMvcProperties.isDispatchOptionsRequest());
+		servlet.setDispatchTraceRequest(webMvcProperties.isDispatchTraceRequest());
+		servlet.setPublishEvents(webMvcProperties.isPublishRequestHandledEvents());
+		servlet.setEnableLoggingRequestDetails(webMvcProperties.isLogRequestDetails());
+
+		MultipartConfigFactory multipart = new MultipartConfigFactory();
+		multipart.setLocation(multipartProperties.getLocation());
+		multipart.setFileSizeThreshold(multipartProperties.getFileSizeThreshold());
+		multipart.setMaxFileSize(appProperties.bulkIngest().maxRequestSize());
+		multipart.setMaxRequestSize(appProperties.bulkIngest().maxRequestSize());
+
+		ServletRegistrationBean<DispatcherServlet> registration = new ServletRegistrationBean<>(servlet, "/api/products/bulk");
+		registration.setName("bulkIngestDispatcherServlet");
+		registration.setMultipartConfig(multipart.createMultipartConfig());
+		return registration;
 	}
 
 	@Override
-	public void addResourceHandlers(ResourceHandlerRegistry registry) {
-		Path uploadsDir = Path.of(appProperties.uploadsDir()).toAbsolutePath().normalize();
-		String location = uploadsDir.toUri().toString();
-		registry
-				.addResourceHandler("/uploads/**")
-				.addResourceLocations(location);
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(requestMetricsInterceptor);
 	}
 
 	@Override
@@ -29,6 +62,7 @@ public class WebConfig implements WebMvcConfigurer {
 		var mapping = registry.addMapping("/**")
 				.allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
 				.allowedHeaders("*")
+				.exposedHeaders("X-Next-Cursor", "ETag", "Idempotent-Replayed", "Retry-After")
 				.allowCredentials(false);
 
 		String[] origins = appProperties.cors() != null ? appProperties.cors().allowedOrigins() : null;
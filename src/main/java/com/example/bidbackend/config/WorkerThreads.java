@@ -0,0 +1,56 @@
+package com.example.bidbackend.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads of the app's own background workers.
+ *
+ * <p>With {@code spring.threads.virtual.enabled} on Java 21 they are virtual threads, like the request
+ * threads Boot then uses; otherwise they are named daemon platform threads. Workers that block only on
+ * {@code java.util.concurrent} locks, queues and I/O can run on either. CPU-bound work should ask for
+ * {@link #platform(String)}: a virtual thread that never blocks keeps its carrier, and the carriers are
+ * shared with every request.
+ */
+@Component
+public class WorkerThreads {
+	private final boolean virtual;
+
+	public WorkerThreads(Environment environment) {
+		this.virtual = Threading.VIRTUAL.isActive(environment);
+	}
+
+	public boolean isVirtual() {
+		return virtual;
+	}
+
+	/**
+	 * Threads named {@code <prefix><n>}, virtual when virtual threads are enabled.
+	 */
+	public ThreadFactory factory(String prefix) {
+		return virtual ? new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory() : platform(prefix);
+	}
+
+	/**
+	 * Daemon platform threads named {@code <prefix><n>}, whatever the mode.
+	 */
+	public ThreadFactory platform(String prefix) {
+		CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix);
+		factory.setDaemon(true);
+		return factory;
+	}
+
+	/**
+	 * Starts a single long-running worker.
+	 */
+	public Thread start(String prefix, Runnable task) {
+		Thread thread = factory(prefix).newThread(task);
+		thread.start();
+		return thread;
+	}
+}
@@ -1,29 +1,86 @@
 package com.example.bidbackend.controller;
 
 import com.example.bidbackend.dto.BidRequest;
+import com.example.bidbackend.dto.ProxyBidRequest;
+import com.example.bidbackend.dto.ProxyBidResponse;
 import com.example.bidbackend.model.Bid;
+import com.example.bidbackend.service.BidExportService;
 import com.example.bidbackend.service.BidService;
+import com.example.bidbackend.service.IdempotencyCache;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class BidController {
 	private final BidService bidService;
+	private final BidExportService bidExportService;
+	private final IdempotencyCache idempotencyCache;
 
-	public BidController(BidService bidService) {
+	public BidController(BidService bidService, BidExportService bidExportService, IdempotencyCache idempotencyCache) {
 		this.bidService = bidService;
+		this.bidExportService = bidExportService;
+		this.idempotencyCache = idempotencyCache;
 	}
 
+	/**
+	 * With an {@code Idempotency-Key}, a retry of the same bid returns the original {@link Bid} instead of bidding again.
+	 */
 	@PostMapping("/products/{id}/bids")
-	public Bid placeBid(@PathVariable("id") Long productId, @Valid @RequestBody BidRequest request) {
-		return bidService.placeBid(productId, request);
+	public ResponseEntity<?> placeBid(
+			@PathVariable("id") Long productId,
+			@Valid @RequestBody BidRequest request,
+			@RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey
+	) {
+		if (idempotencyKey == null) {
+			return ResponseEntity.ok(bidService.placeBid(productId, request));
+		}
+		String fingerprint = request.getAmount() + "|" + request.getBidderName();
+		return IdempotentResponses.of(idempotencyCache.execute("bids|" + productId, idempotencyKey, fingerprint,
+				() -> bidService.placeBid(productId, request)));
+	}
+
+	/**
+	 * Registers a hidden maximum; the server bids on the caller's behalf up to that amount.
+	 */
+	@PostMapping("/products/{id}/proxy-bids")
+	public ProxyBidResponse registerProxy(@PathVariable("id") Long productId, @Valid @RequestBody ProxyBidRequest request) {
+		return bidService.registerProxy(productId, request);
 	}
 
 	@GetMapping("/products/{id}/bids")
-	public List<Bid> listBids(@PathVariable("id") Long productId) {
-		return bidService.listBids(productId);
+	public ResponseEntity<List<Bid>> listBids(
+			@PathVariable("id") Long productId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit
+	) {
+		return PageResponses.of(bidService.listBids(productId, cursor, limit), bid -> bid);
+	}
+
+	/**
+	 * Streams the bid history as JSON Lines (default) or CSV, oldest first.
+	 * {@code from} is inclusive and {@code to} exclusive.
+	 */
+	@GetMapping("/bids/export")
+	public ResponseEntity<StreamingResponseBody> exportBids(
+			@RequestParam(required = false) String format,
+			@RequestParam(required = false) Long productId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+	) {
+		BidExportService.Format exportFormat = BidExportService.Format.parse(format);
+		StreamingResponseBody body = bidExportService.export(exportFormat, productId, from, to);
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bids." + exportFormat.extension() + "\"")
+				.body(body);
 	}
 }
@@ -0,0 +1,39 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.dto.CacheStatsResponse;
+import com.example.bidbackend.service.CatalogResponseCache;
+import com.example.bidbackend.service.ProductDetailCache;
+import com.example.bidbackend.service.UploadFileCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+public class CacheStatsController {
+	private final ProductDetailCache productDetailCache;
+	private final CatalogResponseCache catalogResponseCache;
+	private final UploadFileCache uploadFileCache;
+
+	public CacheStatsController(
+			ProductDetailCache productDetailCache,
+			CatalogResponseCache catalogResponseCache,
+			UploadFileCache uploadFileCache
+	) {
+		this.productDetailCache = productDetailCache;
+		this.catalogResponseCache = catalogResponseCache;
+		this.uploadFileCache = uploadFileCache;
+	}
+
+	@GetMapping("/caches")
+	public Map<String, CacheStatsResponse> caches() {
+		Map<String, CacheStatsResponse> stats = new LinkedHashMap<>();
+		stats.put("product-detail", CacheStatsResponse.of(productDetailCache.stats(), productDetailCache.size()));
+		stats.put("catalog", CacheStatsResponse.of(catalogResponseCache.stats(), catalogResponseCache.size()));
+		stats.put("upload-files", CacheStatsResponse.of(uploadFileCache.stats(), uploadFileCache.size()));
+		return stats;
+	}
+}
@@ -0,0 +1,21 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.service.IdempotencyCache;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+// A replayed response carries the original body; the header tells clients it did not run again.
+final class IdempotentResponses {
+	static final String KEY_HEADER = "Idempotency-Key";
+	static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	private IdempotentResponses() {}
+
+	static ResponseEntity<byte[]> of(IdempotencyCache.Result result) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+		if (result.replayed()) {
+			builder.header(REPLAYED_HEADER, "true");
+		}
+		return builder.body(result.json());
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.event.LiveFeedHub;
+import com.example.bidbackend.exception.ApiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api")
+public class LiveFeedController {
+	private final LiveFeedHub liveFeedHub;
+	private final AuctionBook auctionBook;
+	private final AppProperties appProperties;
+
+	public LiveFeedController(LiveFeedHub liveFeedHub, AuctionBook auctionBook, AppProperties appProperties) {
+		this.liveFeedHub = liveFeedHub;
+		this.auctionBook = auctionBook;
+		this.appProperties = appProperties;
+	}
+
+	/**
+	 * Streams bid-accepted, price-changed and auction-closed events for one product.
+	 * The first event is a "snapshot" with the current state.
+	 */
+	@GetMapping(value = "/products/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter productEvents(@PathVariable("id") Long productId) {
+		if (auctionBook.get(productId) == null) {
+			throw new ApiException(HttpStatus.NOT_FOUND, "Product not found");
+		}
+		return liveFeedHub.subscribe(List.of(productId), auctionBook::get);
+	}
+
+	/**
+	 * Same stream for several products at once, e.g. ?productIds=1,2,3
+	 */
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter events(@RequestParam List<Long> productIds) {
+		Set<Long> ids = new LinkedHashSet<>(productIds);
+		if (ids.isEmpty()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "productIds is required");
+		}
+		if (ids.size() > appProperties.liveFeed().maxProductsPerSubscription()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Too many products in one subscription");
+		}
+		return liveFeedHub.subscribe(ids, auctionBook::get);
+	}
+}
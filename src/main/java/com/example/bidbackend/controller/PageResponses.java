@@ -0,0 +1,79 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.dto.CursorPage;
+import com.example.bidbackend.service.CatalogResponseCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+// Pages keep the plain JSON array body; the cursor for the next page travels in a header.
+final class PageResponses {
+	static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+	private PageResponses() {}
+
+	static <T, R> ResponseEntity<List<R>> of(CursorPage<T> page, Function<T, R> mapper) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+		if (page.nextCursor() != null) {
+			builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return builder.body(page.items().stream().map(mapper).toList());
+	}
+
+	// Spring answers 304 by itself when If-None-Match matches the ETag set here
+	static ResponseEntity<byte[]> rendered(CatalogResponseCache.RenderedPage page, String acceptEncoding) {
+		boolean gzip = acceptsGzip(acceptEncoding);
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.varyBy(HttpHeaders.ACCEPT_ENCODING)
+				.eTag(gzip ? page.gzipEtag() : page.etag());
+		if (page.nextCursor() != null) {
+			builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		if (gzip) {
+			return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.gzip());
+		}
+		return builder.body(page.json());
+	}
+
+	/**
+	 * Whether an Accept-Encoding header allows gzip: listed (or covered by {@code *}) with a non-zero
+	 * q-value, and not ranked below an explicitly listed identity.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null || acceptEncoding.isBlank()) {
+			return false;
+		}
+		double gzip = -1;
+		double any = -1;
+		double identity = -1;
+		for (String token : acceptEncoding.split(",")) {
+			String[] parts = token.split(";");
+			String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+			double q = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String param = parts[i].trim();
+				if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+					try {
+						q = Double.parseDouble(param.substring(2).trim());
+					} catch (NumberFormatException e) {
+						q = 0;
+					}
+				}
+			}
+			switch (coding) {
+				case "gzip", "x-gzip" -> gzip = Math.max(gzip, q);
+				case "*" -> any = q;
+				case "identity" -> identity = q;
+				default -> {
+				}
+			}
+		}
+		double accepted = gzip >= 0 ? gzip : any;
+		return accepted > 0 && accepted >= identity;
+	}
+}
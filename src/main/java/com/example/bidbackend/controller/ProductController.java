@@ -1,57 +1,173 @@
 package com.example.bidbackend.controller;
 
+import com.example.bidbackend.auction.AuctionBook;
 import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.BulkIngestResponse;
 import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.dto.ProductSummary;
 import com.example.bidbackend.dto.ProductUpsertForm;
 import com.example.bidbackend.model.Product;
+import com.example.bidbackend.search.ProductSearchIndex;
+import com.example.bidbackend.service.CatalogResponseCache;
+import com.example.bidbackend.service.IdempotencyCache;
+import com.example.bidbackend.service.ProductDetailCache;
+import com.example.bidbackend.service.ProductIngestService;
 import com.example.bidbackend.service.ProductMapper;
+import com.example.bidbackend.service.ProductSearchService;
 import com.example.bidbackend.service.ProductService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
+import java.math.BigDecimal;
 
 @RestController
 @RequestMapping("/api")
 public class ProductController {
 	private final ProductService productService;
+	private final ProductSearchService productSearchService;
+	private final ProductIngestService productIngestService;
+	private final ProductDetailCache productDetailCache;
+	private final CatalogResponseCache catalogResponseCache;
+	private final IdempotencyCache idempotencyCache;
+	private final AuctionBook auctionBook;
 	private final AppProperties appProperties;
 
-	public ProductController(ProductService productService, AppProperties appProperties) {
+	public ProductController(
+			ProductService productService,
+			ProductSearchService productSearchService,
+			ProductIngestService productIngestService,
+			ProductDetailCache productDetailCache,
+			CatalogResponseCache catalogResponseCache,
+			IdempotencyCache idempotencyCache,
+			AuctionBook auctionBook,
+			AppProperties appProperties
+	) {
 		this.productService = productService;
+		this.productSearchService = productSearchService;
+		this.productIngestService = productIngestService;
+		this.productDetailCache = productDetailCache;
+		this.catalogResponseCache = catalogResponseCache;
+		this.idempotencyCache = idempotencyCache;
+		this.auctionBook = auctionBook;
 		this.appProperties = appProperties;
 	}
 
 	@GetMapping("/products")
-	public List<ProductResponse> listAll() {
-		return productService.listAll().stream().map(p -> ProductMapper.toResponse(p, appProperties)).toList();
+	public ResponseEntity<byte[]> listAll(
+			@RequestParam(required = false) String seller,
+			@RequestParam(required = false) String status,
+			@RequestParam(required = false) BigDecimal minPrice,
+			@RequestParam(required = false) BigDecimal maxPrice,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	) {
+		String key = CatalogResponseCache.key("products", seller, status, minPrice, maxPrice, cursor, limit);
+		CatalogResponseCache.RenderedPage page = catalogResponseCache.get(key,
+				() -> productService.list(seller, status, minPrice, maxPrice, cursor, limit).map(this::toResponse));
+		return PageResponses.rendered(page, acceptEncoding);
+	}
+
+	@GetMapping("/products/search")
+	public ResponseEntity<byte[]> search(
+			@RequestParam(required = false) String q,
+			@RequestParam(required = false) String status,
+			@RequestParam(required = false) BigDecimal minPrice,
+			@RequestParam(required = false) BigDecimal maxPrice,
+			@RequestParam(required = false) String sort,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	) {
+		// cache keys are trimmed, but a trailing space turns the last word from a prefix into a full term
+		String key = CatalogResponseCache.key("search", q, ProductSearchIndex.endsInWord(q), status, minPrice, maxPrice, sort, cursor, limit);
+		CatalogResponseCache.RenderedPage page = catalogResponseCache.get(key,
+				() -> productSearchService.search(q, status, minPrice, maxPrice, sort, cursor, limit));
+		return PageResponses.rendered(page, acceptEncoding);
 	}
 
 	@GetMapping("/products/{id}")
 	public ProductResponse getById(@PathVariable Long id) {
-		Product p = productService.getById(id);
-		return ProductMapper.toResponse(p, appProperties);
+		return productDetailCache.get(id);
 	}
 
 	@GetMapping("/sellers/{sellerName}/products")
-	public List<ProductResponse> listBySeller(@PathVariable String sellerName) {
-		return productService.listBySeller(sellerName).stream().map(p -> ProductMapper.toResponse(p, appProperties)).toList();
+	public ResponseEntity<byte[]> listBySeller(
+			@PathVariable String sellerName,
+			@RequestParam(required = false) String status,
+			@RequestParam(required = false) BigDecimal minPrice,
+			@RequestParam(required = false) BigDecimal maxPrice,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer limit,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	) {
+		String key = CatalogResponseCache.key("seller", sellerName, status, minPrice, maxPrice, cursor, limit);
+		CatalogResponseCache.RenderedPage page = catalogResponseCache.get(key,
+				() -> productService.listBySeller(sellerName, status, minPrice, maxPrice, cursor, limit).map(this::toResponse));
+		return PageResponses.rendered(page, acceptEncoding);
 	}
 
+	/**
+	 * With an {@code Idempotency-Key}, a retry of the same form returns the original listing instead of creating another.
+	 */
 	@PostMapping(value = "/products", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-	public ProductResponse create(@ModelAttribute ProductUpsertForm form) {
-		Product saved = productService.create(form);
-		return ProductMapper.toResponse(saved, appProperties);
+	public ResponseEntity<?> create(
+			@ModelAttribute ProductUpsertForm form,
+			@RequestHeader(value = IdempotentResponses.KEY_HEADER, required = false) String idempotencyKey
+	) {
+		if (idempotencyKey == null) {
+			return ResponseEntity.ok(toResponse(productService.create(form)));
+		}
+		return IdempotentResponses.of(idempotencyCache.execute("products", idempotencyKey, fingerprint(form),
+				() -> toResponse(productService.create(form))));
+	}
+
+	/**
+	 * Creates many listings at once from a manifest (JSON Lines, or CSV with a header row) and a zip
+	 * archive holding the images the rows name. Answers with one result per row.
+	 */
+	@PostMapping(value = "/products/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public BulkIngestResponse bulkCreate(
+			@RequestParam("manifest") MultipartFile manifest,
+			@RequestParam("images") MultipartFile images,
+			@RequestParam(required = false) String format
+	) {
+		return productIngestService.ingest(manifest, images, format);
 	}
 
 	@PutMapping(value = "/products/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	public ProductResponse update(@PathVariable Long id, @ModelAttribute ProductUpsertForm form) {
 		Product saved = productService.update(id, form);
-		return ProductMapper.toResponse(saved, appProperties);
+		return toResponse(saved);
 	}
 
 	@DeleteMapping("/products/{id}")
 	public void delete(@PathVariable Long id, @RequestParam String sellerName) {
 		productService.delete(id, sellerName);
 	}
+
+	private static String fingerprint(ProductUpsertForm form) {
+		MultipartFile image = form.getImage();
+		return String.join("|",
+				String.valueOf(form.getSellerName()),
+				String.valueOf(form.getName()),
+				String.valueOf(form.getDescription()),
+				String.valueOf(form.getStartingPrice()),
+				String.valueOf(form.getEndTime()),
+				String.valueOf(form.getSoftCloseWindowSeconds()),
+				String.valueOf(form.getSoftCloseExtensionSeconds()),
+				image == null ? "" : image.getOriginalFilename() + ":" + image.getSize()
+		);
+	}
+
+	private ProductResponse toResponse(ProductSummary summary) {
+		return ProductMapper.toResponse(summary, auctionBook.get(summary.id()), appProperties);
+	}
+
+	private ProductResponse toResponse(Product product) {
+		return ProductMapper.toResponse(product, auctionBook.get(product.getId()), appProperties);
+	}
 }
@@ -0,0 +1,66 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.HotAuctionResponse;
+import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.ranking.EndingSoonRanking;
+import com.example.bidbackend.ranking.HotAuctionRanking;
+import com.example.bidbackend.service.ProductDetailCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rankings")
+public class RankingController {
+	private final EndingSoonRanking endingSoonRanking;
+	private final HotAuctionRanking hotAuctionRanking;
+	private final ProductDetailCache productDetailCache;
+	private final AppProperties appProperties;
+
+	public RankingController(
+			EndingSoonRanking endingSoonRanking,
+			HotAuctionRanking hotAuctionRanking,
+			ProductDetailCache productDetailCache,
+			AppProperties appProperties
+	) {
+		this.endingSoonRanking = endingSoonRanking;
+		this.hotAuctionRanking = hotAuctionRanking;
+		this.productDetailCache = productDetailCache;
+		this.appProperties = appProperties;
+	}
+
+	@GetMapping("/ending-soon")
+	public List<ProductResponse> endingSoon(@RequestParam(required = false) Integer limit) {
+		List<Long> ids = endingSoonRanking.top(appProperties.paging().resolve(limit), LocalDateTime.now());
+		return productDetailCache.getAll(ids);
+	}
+
+	@GetMapping("/hot")
+	public List<HotAuctionResponse> hot(@RequestParam(required = false) Integer limit) {
+		List<HotAuctionRanking.Ranked> ranked = hotAuctionRanking.top(appProperties.paging().resolve(limit));
+		List<Long> ids = new ArrayList<>(ranked.size());
+		for (HotAuctionRanking.Ranked r : ranked) {
+			ids.add(r.productId());
+		}
+		Map<Long, ProductResponse> products = new HashMap<>();
+		for (ProductResponse product : productDetailCache.getAll(ids)) {
+			products.put(product.id(), product);
+		}
+		List<HotAuctionResponse> hot = new ArrayList<>(ranked.size());
+		for (HotAuctionRanking.Ranked r : ranked) {
+			ProductResponse product = products.get(r.productId());
+			if (product != null) {
+				hot.add(new HotAuctionResponse(product, r.recentBids()));
+			}
+		}
+		return hot;
+	}
+}
@@ -0,0 +1,184 @@
+package com.example.bidbackend.controller;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.service.ImageVariant;
+import com.example.bidbackend.service.UploadFileCache;
+import com.example.bidbackend.storage.BlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves stored uploads.
+ *
+ * <p>Upload names are content hashes, so responses are immutable for a year and carry a strong ETag.
+ * Single byte ranges are honoured. Small files come from memory, local files go out through Tomcat's
+ * sendfile where the connector offers it, and everything else is streamed. A variant that is not
+ * rendered yet is answered with its original, marked {@code no-cache}.
+ */
+@RestController
+public class UploadFileController {
+	private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+	private static final Pattern SINGLE_RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	private final BlobStore blobStore;
+	private final UploadFileCache uploadFileCache;
+	private final String immutable;
+
+	public UploadFileController(BlobStore blobStore, UploadFileCache uploadFileCache, AppProperties appProperties) {
+		this.blobStore = blobStore;
+		this.uploadFileCache = uploadFileCache;
+		this.immutable = "public, max-age=" + appProperties.uploadServing().maxAge().toSeconds() + ", immutable";
+	}
+
+	@RequestMapping(value = "/uploads/{filename}", method = {RequestMethod.GET, RequestMethod.HEAD})
+	public void serve(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		if (!SAFE_NAME.matcher(filename).matches() || filename.contains("..")) {
+			throw notFound();
+		}
+		String served = filename;
+		UploadFileCache.CachedFile cached = uploadFileCache.get(served);
+		BlobStore.BlobInfo info = null;
+		if (cached == null) {
+			info = blobStore.stat(served);
+			if (info == null) {
+				served = ImageVariant.originalOf(filename);
+				info = served != null ? blobStore.stat(served) : null;
+				if (info == null) {
+					throw notFound();
+				}
+			}
+		}
+		long length = cached != null ? cached.bytes().length : info.size();
+		long lastModified = cached != null ? cached.lastModified() : info.lastModified();
+		String etag = '"' + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + '"';
+
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, served.equals(filename) ? immutable : "no-cache");
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+		response.setContentType(MediaTypeFactory.getMediaType(served).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+			response.setStatus(HttpStatus.NOT_MODIFIED.value());
+			return;
+		}
+
+		long start = 0;
+		long end = length - 1;
+		String range = request.getHeader(HttpHeaders.RANGE);
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (range != null && (ifRange == null || ifRange.equals(etag))) {
+			Matcher m = SINGLE_RANGE.matcher(range.trim());
+			// multi-range requests fall through to a full response, which the spec allows
+			if (m.matches() && !(m.group(1).isEmpty() && m.group(2).isEmpty())) {
+				if (m.group(1).isEmpty()) {
+					start = Math.max(0, length - position(m.group(2)));
+				} else {
+					start = position(m.group(1));
+					if (!m.group(2).isEmpty()) {
+						end = Math.min(end, position(m.group(2)));
+					}
+				}
+				if (start >= length || start > end) {
+					response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+					response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+					return;
+				}
+				response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+			}
+		}
+		long count = end - start + 1;
+		response.setContentLengthLong(count);
+		if ("HEAD".equals(request.getMethod())) {
+			return;
+		}
+
+		if (cached == null && uploadFileCache.accepts(length)) {
+			cached = load(served, lastModified);
+		}
+		if (cached != null) {
+			response.getOutputStream().write(cached.bytes(), (int) start, (int) count);
+			return;
+		}
+		Path file = blobStore.localPath(served);
+		if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			// Tomcat streams the file from the kernel once this request returns
+			request.setAttribute(SENDFILE_FILENAME, file.toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end + 1);
+			return;
+		}
+		// without sendfile, transferTo into the response stream only adds a copy through a direct buffer
+		try (InputStream in = blobStore.open(served)) {
+			in.skipNBytes(start);
+			OutputStream out = response.getOutputStream();
+			byte[] buffer = new byte[8192];
+			for (long remaining = count; remaining > 0; ) {
+				int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+				if (n < 0) {
+					break;
+				}
+				out.write(buffer, 0, n);
+				remaining -= n;
+			}
+		}
+	}
+
+	private UploadFileCache.CachedFile load(String filename, long lastModified) throws IOException {
+		byte[] bytes;
+		try (InputStream in = blobStore.open(filename)) {
+			bytes = in.readAllBytes();
+		}
+		UploadFileCache.CachedFile file = new UploadFileCache.CachedFile(bytes, lastModified);
+		uploadFileCache.put(filename, file);
+		return file;
+	}
+
+	// positions past Long.MAX_VALUE are past any file, so they saturate instead of failing the request
+	private static long position(String digits) {
+		try {
+			return Long.parseLong(digits);
+		} catch (NumberFormatException e) {
+			return Long.MAX_VALUE;
+		}
+	}
+
+	private static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ApiException notFound() {
+		return new ApiException(HttpStatus.NOT_FOUND, "File not found");
+	}
+}
@@ -1,6 +1,7 @@
 package com.example.bidbackend.controller;
 
 import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.service.ImageVariant;
 import com.example.bidbackend.service.UploadsService;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -25,7 +26,7 @@ public class UploadsController {
 
 	/**
 	 * Upload a single image file.
-	 * Returns: { "filename": "uuid.jpg", "url": "https://example.com/uploads/uuid.jpg" }
+	 * Returns: { "filename": "<sha>.jpg", "url": "https://example.com/uploads/<sha>.jpg", "thumbnailUrl": ..., "mediumUrl": ... }
 	 */
 	@PostMapping(value = "image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
 	public Map<String, String> uploadImage(@RequestParam("file") MultipartFile file) {
@@ -35,6 +36,8 @@ public class UploadsController {
 		Map<String, String> response = new HashMap<>();
 		response.put("filename", filename);
 		response.put("url", imageUrl);
+		response.put("thumbnailUrl", buildImageUrl(ImageVariant.THUMB.filename(filename)));
+		response.put("mediumUrl", buildImageUrl(ImageVariant.MEDIUM.filename(filename)));
 		return response;
 	}
 
@@ -0,0 +1,15 @@
+package com.example.bidbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged bid row for exports; nothing is kept in the persistence context while streaming.
+ */
+public record BidExportRow(
+		Long id,
+		Long productId,
+		BigDecimal amount,
+		String bidderName,
+		LocalDateTime createdAt
+) {}
@@ -0,0 +1,11 @@
+package com.example.bidbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BidResponse(
+		Long id,
+		BigDecimal amount,
+		LocalDateTime createdAt,
+		String bidderName
+) {}
@@ -0,0 +1,14 @@
+package com.example.bidbackend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk ingest, with one result per manifest row in manifest order. Rows are numbered
+ * from 1, not counting a CSV header.
+ */
+public record BulkIngestResponse(int created, int failed, List<RowResult> rows) {
+	/**
+	 * The new product's id, or why the row was not created.
+	 */
+	public record RowResult(int row, Long id, String error) {}
+}
@@ -0,0 +1,23 @@
+package com.example.bidbackend.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public record CacheStatsResponse(
+		long size,
+		long hits,
+		long misses,
+		double hitRate,
+		long evictions,
+		long loadFailures
+) {
+	public static CacheStatsResponse of(CacheStats stats, long size) {
+		return new CacheStatsResponse(
+				size,
+				stats.hitCount(),
+				stats.missCount(),
+				stats.hitRate(),
+				stats.evictionCount(),
+				stats.loadFailureCount()
+		);
+	}
+}
@@ -0,0 +1,13 @@
+package com.example.bidbackend.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One keyset page; {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+	public <R> CursorPage<R> map(Function<T, R> mapper) {
+		return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+	}
+}
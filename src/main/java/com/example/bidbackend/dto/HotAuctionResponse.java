@@ -0,0 +1,6 @@
+package com.example.bidbackend.dto;
+
+/**
+ * A listing in the hot auctions ranking with the bids it received inside the ranking window.
+ */
+public record HotAuctionResponse(ProductResponse product, long recentBids) {}
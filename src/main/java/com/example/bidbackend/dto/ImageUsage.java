@@ -0,0 +1,6 @@
+package com.example.bidbackend.dto;
+
+/**
+ * Number of products that point at one stored image.
+ */
+public record ImageUsage(String imageFilename, Long products) {}
@@ -0,0 +1,17 @@
+package com.example.bidbackend.dto;
+
+/**
+ * One listing of a bulk ingest manifest, as read from a JSON line or a CSV record. Values stay text
+ * until the row is validated, so a bad value fails its row rather than the whole manifest.
+ * {@code image} names an entry of the accompanying archive.
+ */
+public record ProductManifestRow(
+		String sellerName,
+		String name,
+		String description,
+		String startingPrice,
+		String endTime,
+		String softCloseWindowSeconds,
+		String softCloseExtensionSeconds,
+		String image
+) {}
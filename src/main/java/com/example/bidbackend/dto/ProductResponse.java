@@ -12,5 +12,7 @@ public record ProductResponse(
 		BigDecimal currentPrice,
 		LocalDateTime endTime,
 		String status,
-		String imageUrl
+		String imageUrl,
+		String thumbnailUrl,
+		String mediumUrl
 ) {}
@@ -0,0 +1,21 @@
+package com.example.bidbackend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Listing row read straight from the database: product columns plus bid aggregates, no bid entities.
+ */
+public record ProductSummary(
+		Long id,
+		String sellerName,
+		String name,
+		String description,
+		BigDecimal startingPrice,
+		LocalDateTime endTime,
+		LocalDateTime createdAt,
+		LocalDateTime closedAt,
+		String imageFilename,
+		BigDecimal topBid,
+		Long bidCount
+) {}
@@ -17,6 +17,9 @@ public class ProductUpsertForm {
 
 	private MultipartFile image;
 
+	private Integer softCloseWindowSeconds;
+	private Integer softCloseExtensionSeconds;
+
 	public String getSellerName() {
 		return sellerName;
 	}
@@ -64,4 +67,20 @@ public class ProductUpsertForm {
 	public void setImage(MultipartFile image) {
 		this.image = image;
 	}
+
+	public Integer getSoftCloseWindowSeconds() {
+		return softCloseWindowSeconds;
+	}
+
+	public void setSoftCloseWindowSeconds(Integer softCloseWindowSeconds) {
+		this.softCloseWindowSeconds = softCloseWindowSeconds;
+	}
+
+	public Integer getSoftCloseExtensionSeconds() {
+		return softCloseExtensionSeconds;
+	}
+
+	public void setSoftCloseExtensionSeconds(Integer softCloseExtensionSeconds) {
+		this.softCloseExtensionSeconds = softCloseExtensionSeconds;
+	}
 }
@@ -0,0 +1,32 @@
+package com.example.bidbackend.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public class ProxyBidRequest {
+	@NotNull
+	@DecimalMin("0.01")
+	private BigDecimal maxAmount;
+
+	@NotBlank
+	private String bidderName;
+
+	public BigDecimal getMaxAmount() {
+		return maxAmount;
+	}
+
+	public void setMaxAmount(BigDecimal maxAmount) {
+		this.maxAmount = maxAmount;
+	}
+
+	public String getBidderName() {
+		return bidderName;
+	}
+
+	public void setBidderName(String bidderName) {
+		this.bidderName = bidderName;
+	}
+}
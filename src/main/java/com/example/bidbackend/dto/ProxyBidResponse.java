@@ -0,0 +1,12 @@
+package com.example.bidbackend.dto;
+
+import java.math.BigDecimal;
+
+public record ProxyBidResponse(
+		Long productId,
+		String bidderName,
+		BigDecimal maxAmount,
+		BigDecimal currentPrice,
+		String highBidder,
+		boolean leading
+) {}
@@ -0,0 +1,6 @@
+package com.example.bidbackend.dto;
+
+/**
+ * The searchable text of one product, read when the search index is rebuilt.
+ */
+public record SearchDocument(Long id, String name, String description, String sellerName) {}
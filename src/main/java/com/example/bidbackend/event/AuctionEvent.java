@@ -0,0 +1,51 @@
+package com.example.bidbackend.event;
+
+import com.example.bidbackend.auction.AuctionSnapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * State change of a live auction. Published by {@code AuctionBook} while it still holds the
+ * product's lock, so listeners see events of one product in order and must not block.
+ * {@code sequence} is the number of bids so far; {@code version} increases with every event of the product.
+ */
+public record AuctionEvent(
+		Type type,
+		Long productId,
+		long sequence,
+		long version,
+		BigDecimal currentPrice,
+		String highBidder,
+		LocalDateTime endTime,
+		LocalDateTime at
+) {
+	public enum Type {
+		BID_ACCEPTED("bid-accepted"),
+		PRICE_CHANGED("price-changed"),
+		AUCTION_CLOSED("auction-closed");
+
+		private final String eventName;
+
+		Type(String eventName) {
+			this.eventName = eventName;
+		}
+
+		public String eventName() {
+			return eventName;
+		}
+	}
+
+	public static AuctionEvent of(Type type, AuctionSnapshot snapshot, LocalDateTime at) {
+		return new AuctionEvent(
+				type,
+				snapshot.productId(),
+				snapshot.bidCount(),
+				snapshot.version(),
+				snapshot.currentPrice(),
+				snapshot.highBidder(),
+				snapshot.endTime(),
+				at
+		);
+	}
+}
@@ -0,0 +1,322 @@
+package com.example.bidbackend.event;
+
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Fans auction events out to Server-Sent Event subscribers.
+ *
+ * <p>Each event is serialized once and the same frame is handed to every subscriber of the product.
+ * Publishing only appends to the product's topic queue; fan-out and socket writes run on the sender
+ * pool. Every connection has a bounded buffer and is dropped when it fills up, so one slow client can
+ * neither stall the bid path nor grow the heap.
+ *
+ * <p>A socket write cannot be interrupted, so a client that stops reading holds its sender thread until
+ * the container gives up on the connection. A write that has been blocked for {@code write-timeout}
+ * drops its client and the pool gets one extra thread until the write returns, so stalled connections
+ * never take sender threads away from the others. Emitters are only completed on a sender thread,
+ * never by a thread that would have to wait behind such a write.
+ */
+@Component
+public class LiveFeedHub {
+	private static final Logger log = LoggerFactory.getLogger(LiveFeedHub.class);
+	private static final Frame HEARTBEAT = new Frame(null, null, null);
+	// Subscriber.sendingSince when no write is in progress, and once the running write has been timed out
+	private static final long IDLE = 0;
+	private static final long STALLED = Long.MIN_VALUE;
+
+	private final ObjectMapper objectMapper;
+	private final AppProperties.LiveFeed config;
+	private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final ThreadPoolExecutor senders;
+	private final ScheduledExecutorService heartbeats;
+	private final ReentrantLock resizeLock = new ReentrantLock();
+	// guarded by resizeLock
+	private int stalledWrites;
+
+	public LiveFeedHub(ObjectMapper objectMapper, WorkerThreads workerThreads, AppProperties appProperties) {
+		this.objectMapper = objectMapper;
+		this.config = appProperties.liveFeed();
+		this.senders = new ThreadPoolExecutor(config.senderThreads(), config.senderThreads(), 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), workerThreads.factory("live-feed-"));
+		this.heartbeats = Executors.newSingleThreadScheduledExecutor(workerThreads.factory("live-feed-heartbeat-"));
+		long period = config.heartbeat().toMillis();
+		heartbeats.scheduleAtFixedRate(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+		long check = Math.max(1, config.writeTimeout().toMillis() / 2);
+		heartbeats.scheduleAtFixedRate(this::evictStalled, check, check, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Opens a stream for the given products and immediately sends their current state.
+	 */
+	public SseEmitter subscribe(Collection<Long> productIds, Function<Long, AuctionSnapshot> snapshots) {
+		SseEmitter emitter = new SseEmitter(config.connectionTimeout().toMillis());
+		Subscriber subscriber = new Subscriber(emitter, List.copyOf(productIds));
+		emitter.onCompletion(subscriber::close);
+		emitter.onTimeout(subscriber::close);
+		emitter.onError(e -> subscriber.close());
+
+		subscribers.add(subscriber);
+		// snapshots are queued before the topics deliver anything, so no event is overtaken by an older state;
+		// a change in between is sent as a second snapshot, which clients can order by the event id
+		LocalDateTime now = LocalDateTime.now();
+		List<AuctionSnapshot> sent = new ArrayList<>();
+		for (Long productId : subscriber.productIds) {
+			AuctionSnapshot snapshot = snapshots.apply(productId);
+			sent.add(snapshot);
+			if (snapshot != null) {
+				subscriber.offer(frame("snapshot", AuctionEvent.of(AuctionEvent.Type.PRICE_CHANGED, snapshot, now)));
+			}
+		}
+		for (int i = 0; i < subscriber.productIds.size(); i++) {
+			Long productId = subscriber.productIds.get(i);
+			topics.compute(productId, (id, topic) -> {
+				Topic t = topic != null ? topic : new Topic();
+				t.subscribers.add(subscriber);
+				return t;
+			});
+			AuctionSnapshot snapshot = snapshots.apply(productId);
+			if (snapshot != null && !snapshot.equals(sent.get(i))) {
+				subscriber.offer(frame("snapshot", AuctionEvent.of(AuctionEvent.Type.PRICE_CHANGED, snapshot, now)));
+			}
+		}
+		return emitter;
+	}
+
+	@EventListener
+	public void onAuctionEvent(AuctionEvent event) {
+		Topic topic = topics.get(event.productId());
+		if (topic == null || topic.subscribers.isEmpty()) {
+			return;
+		}
+		topic.publish(frame(event.type().eventName(), event));
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.type() != ProductChangedEvent.Type.DELETED) {
+			return;
+		}
+		Topic topic = topics.remove(event.productId());
+		if (topic != null) {
+			topic.subscribers.forEach(Subscriber::drop);
+		}
+	}
+
+	public int subscriberCount() {
+		return subscribers.size();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		heartbeats.shutdownNow();
+		senders.shutdownNow();
+		subscribers.forEach(s -> s.emitter.complete());
+	}
+
+	private void heartbeat() {
+		subscribers.forEach(s -> s.offer(HEARTBEAT));
+	}
+
+	private void evictStalled() {
+		long now = System.nanoTime();
+		long timeout = config.writeTimeout().toNanos();
+		for (Subscriber subscriber : subscribers) {
+			long since = subscriber.sendingSince.get();
+			if (since != IDLE && since != STALLED && now - since > timeout
+					&& subscriber.sendingSince.compareAndSet(since, STALLED)) {
+				log.debug("Dropping stalled live feed subscriber for products {}", subscriber.productIds);
+				// the writer completes the emitter once the write returns
+				subscriber.drop();
+				resizeSenders(1);
+			}
+		}
+	}
+
+	private Frame frame(String name, AuctionEvent event) {
+		try {
+			String id = event.productId() + ":" + event.version();
+			return new Frame(id, name, objectMapper.writeValueAsString(event));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize auction event", e);
+		}
+	}
+
+	// the write and the watchdog may report a stall in either order, hence the clamp
+	private void resizeSenders(int delta) {
+		resizeLock.lock();
+		try {
+			stalledWrites += delta;
+			int size = config.senderThreads() + Math.max(0, stalledWrites);
+			if (size > senders.getMaximumPoolSize()) {
+				senders.setMaximumPoolSize(size);
+				senders.setCorePoolSize(size);
+			} else {
+				senders.setCorePoolSize(size);
+				senders.setMaximumPoolSize(size);
+			}
+		} finally {
+			resizeLock.unlock();
+		}
+	}
+
+	private void execute(Runnable task) {
+		try {
+			senders.execute(task);
+		} catch (RejectedExecutionException ignored) {
+			// shutting down
+		}
+	}
+
+	private record Frame(String id, String name, String json) {}
+
+	private final class Topic {
+		private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+		private final Queue<Frame> pending = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private void publish(Frame frame) {
+			pending.add(frame);
+			if (scheduled.compareAndSet(false, true)) {
+				execute(this::fanOut);
+			}
+		}
+
+		private void fanOut() {
+			Frame frame;
+			while ((frame = pending.poll()) != null) {
+				for (Subscriber subscriber : subscribers) {
+					subscriber.offer(frame);
+				}
+			}
+			scheduled.set(false);
+			if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+				execute(this::fanOut);
+			}
+		}
+	}
+
+	private final class Subscriber {
+		private final SseEmitter emitter;
+		private final List<Long> productIds;
+		private final Queue<Frame> buffer = new ArrayBlockingQueue<>(config.subscriberBuffer());
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private final AtomicBoolean completed = new AtomicBoolean();
+		// start of the write in progress, IDLE or STALLED
+		private final AtomicLong sendingSince = new AtomicLong(IDLE);
+
+		private Subscriber(SseEmitter emitter, List<Long> productIds) {
+			this.emitter = emitter;
+			this.productIds = productIds;
+		}
+
+		private void offer(Frame frame) {
+			if (closed.get()) {
+				return;
+			}
+			if (!buffer.offer(frame)) {
+				log.debug("Dropping slow live feed subscriber for products {}", productIds);
+				drop();
+				return;
+			}
+			if (scheduled.compareAndSet(false, true)) {
+				execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				Frame frame;
+				while (!closed.get() && (frame = buffer.poll()) != null) {
+					sendingSince.set(System.nanoTime());
+					try {
+						emitter.send(toEvent(frame));
+					} finally {
+						if (sendingSince.getAndSet(IDLE) == STALLED) {
+							resizeSenders(-1);
+						}
+					}
+				}
+				if (closed.get() && completed.compareAndSet(false, true)) {
+					emitter.complete();
+				}
+			} catch (IOException | IllegalStateException e) {
+				completed.set(true);
+				close();
+				return;
+			} finally {
+				scheduled.set(false);
+			}
+			if ((!buffer.isEmpty() || (closed.get() && !completed.get())) && scheduled.compareAndSet(false, true)) {
+				execute(this::drain);
+			}
+		}
+
+		// unsubscribes and has a sender complete the emitter, behind the write in progress if there is one
+		private void drop() {
+			close();
+			if (!completed.get() && scheduled.compareAndSet(false, true)) {
+				execute(this::drain);
+			}
+		}
+
+		private void close() {
+			if (!closed.compareAndSet(false, true)) {
+				return;
+			}
+			subscribers.remove(this);
+			buffer.clear();
+			List<Long> emptied = new ArrayList<>();
+			for (Long productId : productIds) {
+				Topic topic = topics.get(productId);
+				if (topic != null && topic.subscribers.remove(this) && topic.subscribers.isEmpty()) {
+					emptied.add(productId);
+				}
+			}
+			// drop idle topics; a concurrent subscribe simply recreates them
+			emptied.forEach(id -> topics.computeIfPresent(id, (k, t) -> t.subscribers.isEmpty() ? null : t));
+		}
+
+		private static SseEmitter.SseEventBuilder toEvent(Frame frame) {
+			if (frame == HEARTBEAT) {
+				return SseEmitter.event().comment("keepalive");
+			}
+			return SseEmitter.event().id(frame.id()).name(frame.name()).data(frame.json(), MediaType.APPLICATION_JSON);
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.bidbackend.event;
+
+import com.example.bidbackend.model.Product;
+
+/**
+ * Published by {@code ProductService} whenever a listing is created, edited or removed.
+ * Listeners that keep derived in-memory state should subscribe after commit. {@code previousImageFilename}
+ * is the image the product pointed at before an edit that replaced it, otherwise null.
+ */
+public record ProductChangedEvent(Type type, Product product, String previousImageFilename) {
+	public enum Type {
+		CREATED,
+		UPDATED,
+		DELETED
+	}
+
+	public ProductChangedEvent(Type type, Product product) {
+		this(type, product, null);
+	}
+
+	public Long productId() {
+		return product.getId();
+	}
+}
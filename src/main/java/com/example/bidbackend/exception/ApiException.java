@@ -10,6 +10,14 @@ public class ApiException extends RuntimeException {
 		this.status = status;
 	}
 
+	/**
+	 * For expected, frequent rejections that do not need a stack trace.
+	 */
+	protected ApiException(HttpStatus status, String message, boolean writableStackTrace) {
+		super(message, null, false, writableStackTrace);
+		this.status = status;
+	}
+
 	public HttpStatus getStatus() {
 		return status;
 	}
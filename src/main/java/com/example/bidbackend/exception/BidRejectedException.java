@@ -0,0 +1,32 @@
+package com.example.bidbackend.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A bid the auction book turned down. Rejections are routine during bid storms, so no stack trace is
+ * captured; the reason tags the rejection metrics.
+ */
+public class BidRejectedException extends ApiException {
+	public enum Reason {
+		NOT_FOUND(HttpStatus.NOT_FOUND),
+		CLOSED(HttpStatus.BAD_REQUEST),
+		TOO_LOW(HttpStatus.BAD_REQUEST);
+
+		private final HttpStatus status;
+
+		Reason(HttpStatus status) {
+			this.status = status;
+		}
+	}
+
+	private final Reason reason;
+
+	public BidRejectedException(Reason reason, String message) {
+		super(reason.status, message, false);
+		this.reason = reason;
+	}
+
+	public Reason getReason() {
+		return reason;
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.time.Instant;
 
@@ -39,6 +40,18 @@ public class GlobalExceptionHandler {
 		));
 	}
 
+	@ExceptionHandler(MaxUploadSizeExceededException.class)
+	public ResponseEntity<ApiError> handleUploadSize(MaxUploadSizeExceededException ex, HttpServletRequest request) {
+		HttpStatus status = HttpStatus.PAYLOAD_TOO_LARGE;
+		return ResponseEntity.status(status).body(new ApiError(
+				Instant.now(),
+				status.value(),
+				status.getReasonPhrase(),
+				"Upload exceeds the size limit",
+				request.getRequestURI()
+		));
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<ApiError> handleAny(Exception ex, HttpServletRequest request) {
 		HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
@@ -0,0 +1,94 @@
+package com.example.bidbackend.metrics;
+
+import com.example.bidbackend.config.AppProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many statements each request ran against the database and how long they took, tagged
+ * like {@code http.server.requests} with the HTTP method and the URI pattern.
+ *
+ * <p>Meters are looked up by pattern and method in maps that only grow at warm-up, so a request
+ * records its numbers without allocating. Requests that run more statements than
+ * {@code app.metrics.statement-warn-threshold} are logged, which is how N+1 queries show up.
+ * Async requests (bid exports, live feeds) are only counted for the dispatch that handles them on the
+ * request thread.
+ */
+@Component
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+	private static final Logger log = LoggerFactory.getLogger(RequestMetricsInterceptor.class);
+
+	private final MeterRegistry registry;
+	private final int warnThreshold;
+	private final Map<String, Map<String, Meters>> meters = new ConcurrentHashMap<>();
+
+	public RequestMetricsInterceptor(MeterRegistry registry, AppProperties appProperties) {
+		this.registry = registry;
+		this.warnThreshold = appProperties.metrics().statementWarnThreshold();
+	}
+
+	private record Meters(DistributionSummary statements, Timer time) {}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			StatementStats.current().begin();
+		}
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		StatementStats.current().end();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		StatementStats stats = StatementStats.current();
+		if (!stats.isActive()) {
+			return;
+		}
+		stats.end();
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+		String method = request.getMethod();
+		Meters m = meters.computeIfAbsent(uri, u -> new ConcurrentHashMap<>()).get(method);
+		if (m == null) {
+			m = meters.get(uri).computeIfAbsent(method, k -> register(uri, k));
+		}
+		m.statements().record(stats.statements());
+		m.time().record(stats.nanos(), TimeUnit.NANOSECONDS);
+		if (stats.statements() > warnThreshold) {
+			log.warn("{} {} ran {} statements ({} ms)", method, uri, stats.statements(),
+					TimeUnit.NANOSECONDS.toMillis(stats.nanos()));
+		}
+	}
+
+	private Meters register(String uri, String method) {
+		return new Meters(
+				DistributionSummary.builder("http.server.requests.db.statements")
+						.description("JDBC statements run per request")
+						.tags("method", method, "uri", uri)
+						.publishPercentiles(0.5, 0.99)
+						.register(registry),
+				Timer.builder("http.server.requests.db.time")
+						.description("Time spent in JDBC statements per request")
+						.tags("method", method, "uri", uri)
+						.publishPercentileHistogram()
+						.register(registry)
+		);
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.bidbackend.metrics;
+
+/**
+ * Per-thread tally of the JDBC statements a request runs.
+ *
+ * <p>{@link RequestMetricsInterceptor} opens the tally when a request enters a controller and reads it
+ * when the request completes; {@link StatementTimingListener} adds to it while it is open. Statements
+ * run by background threads never see an open tally and are not counted. The holder is reused for
+ * every request the thread serves, so counting allocates nothing.
+ */
+final class StatementStats {
+	private static final ThreadLocal<StatementStats> CURRENT = ThreadLocal.withInitial(StatementStats::new);
+
+	private boolean active;
+	private int statements;
+	private long nanos;
+	private long startedAt;
+
+	private StatementStats() {}
+
+	static StatementStats current() {
+		return CURRENT.get();
+	}
+
+	void begin() {
+		active = true;
+		statements = 0;
+		nanos = 0;
+		startedAt = 0;
+	}
+
+	void statementStarted() {
+		if (active) {
+			startedAt = System.nanoTime();
+		}
+	}
+
+	void statementEnded() {
+		if (active && startedAt != 0) {
+			statements++;
+			nanos += System.nanoTime() - startedAt;
+			startedAt = 0;
+		}
+	}
+
+	void end() {
+		active = false;
+	}
+
+	boolean isActive() {
+		return active;
+	}
+
+	int statements() {
+		return statements;
+	}
+
+	long nanos() {
+		return nanos;
+	}
+}
@@ -0,0 +1,29 @@
+package com.example.bidbackend.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Feeds the statements of every Hibernate session into the current request's {@link StatementStats}.
+ * Hibernate creates one per session from {@code hibernate.session.events.auto}.
+ */
+public class StatementTimingListener implements SessionEventListener {
+	@Override
+	public void jdbcExecuteStatementStart() {
+		StatementStats.current().statementStarted();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		StatementStats.current().statementEnded();
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		StatementStats.current().statementStarted();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		StatementStats.current().statementEnded();
+	}
+}
@@ -0,0 +1,24 @@
+package com.example.bidbackend.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * A pooled sequence id that the application may also assign itself before persisting.
+ * Each sequence value is the first of the {@code allocationSize} ids it reserves, so code that reserves
+ * blocks from the same sequence directly never hands out an id Hibernate does.
+ */
+@IdGeneratorType(AssignedOrSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface AssignedOrSequence {
+	String sequenceName();
+
+	int allocationSize();
+}
@@ -0,0 +1,42 @@
+package com.example.bidbackend.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * Generator behind {@link AssignedOrSequence}: keeps an id that is already set and otherwise takes the
+ * next one from the sequence with the "pooled-lo" optimizer.
+ */
+public class AssignedOrSequenceGenerator extends SequenceStyleGenerator {
+	private final AssignedOrSequence config;
+
+	public AssignedOrSequenceGenerator(AssignedOrSequence config, Member member, CustomIdGeneratorCreationContext context) {
+		this.config = config;
+	}
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+		parameters.setProperty(SEQUENCE_PARAM, config.sequenceName());
+		parameters.setProperty(INCREMENT_PARAM, Integer.toString(config.allocationSize()));
+		parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+		super.configure(type, parameters, serviceRegistry);
+	}
+
+	@Override
+	public Object generate(SharedSessionContractImplementor session, Object object) {
+		Object assigned = session.getEntityPersister(null, object).getIdentifier(object, session);
+		return assigned != null ? assigned : super.generate(session, object);
+	}
+
+	@Override
+	public boolean allowAssignedIdentifiers() {
+		return true;
+	}
+}
@@ -9,10 +9,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bids")
+@Table(name = "bids", indexes = {
+		@Index(name = "idx_bids_product_amount", columnList = "product_id, amount, created_at, id")
+})
 public class Bid {
+	public static final String ID_SEQUENCE = "bids_seq";
+	public static final int ID_ALLOCATION_SIZE = 50;
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	// pooled sequence ids keep JDBC batching on; IDENTITY forces one insert per round trip.
+	// Accepted bids arrive with an id reserved by BidIds, so their response can carry it before the insert.
+	@AssignedOrSequence(sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 
 	@ManyToOne(optional = false, fetch = FetchType.LAZY)
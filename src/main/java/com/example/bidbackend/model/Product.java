@@ -3,23 +3,39 @@ package com.example.bidbackend.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+		@Index(name = "idx_products_created", columnList = "created_at, id"),
+		@Index(name = "idx_products_seller_created", columnList = "seller_key, created_at, id"),
+		@Index(name = "idx_products_end_time", columnList = "end_time"),
+		@Index(name = "idx_products_image", columnList = "image_filename")
+})
+// seller edits only write the columns they change, so they cannot undo a close or a soft-close
+// extension the bid writer recorded in the meantime
+@DynamicUpdate
 public class Product {
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	// pooled sequence ids let bulk ingests batch their inserts, like bids
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+	@SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
 	private Long id;
 
 	@NotBlank
 	@Column(nullable = false)
 	private String sellerName;
 
+	// lower-cased copy of sellerName so seller listings can use an index
+	@Column(name = "seller_key")
+	private String sellerKey;
+
 	@NotBlank
 	@Column(nullable = false)
 	private String name;
@@ -41,9 +57,24 @@ public class Product {
 
 	private String imageFilename;
 
-	// NOTE: for this simple offline auction app we eagerly load bids
-	// so we can compute currentPrice without lazy-loading issues.
-	@OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+	// soft close: a bid accepted within the window before endTime pushes endTime out by the extension
+	private Integer softCloseWindowSeconds;
+
+	private Integer softCloseExtensionSeconds;
+
+	// set once by the auction closer; null while the auction is running
+	private LocalDateTime closedAt;
+
+	@Column(precision = 19, scale = 2)
+	private BigDecimal finalPrice;
+
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "winning_bid_id")
+	private Bid winningBid;
+
+	// NOTE: currentPrice comes from the auction book or from aggregate queries,
+	// so the bid history is only loaded when something actually walks it.
+	@OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
 	@OrderBy("amount DESC, createdAt DESC")
 	private List<Bid> bids = new ArrayList<>();
 
@@ -52,6 +83,12 @@ public class Product {
 		if (createdAt == null) {
 			createdAt = LocalDateTime.now();
 		}
+		onUpdate();
+	}
+
+	@PreUpdate
+	public void onUpdate() {
+		sellerKey = sellerName == null ? null : sellerName.toLowerCase(Locale.ROOT);
 	}
 
 	public Long getId() {
@@ -70,6 +107,10 @@ public class Product {
 		this.sellerName = sellerName;
 	}
 
+	public String getSellerKey() {
+		return sellerKey;
+	}
+
 	public String getName() {
 		return name;
 	}
@@ -118,6 +159,46 @@ public class Product {
 		this.imageFilename = imageFilename;
 	}
 
+	public Integer getSoftCloseWindowSeconds() {
+		return softCloseWindowSeconds;
+	}
+
+	public void setSoftCloseWindowSeconds(Integer softCloseWindowSeconds) {
+		this.softCloseWindowSeconds = softCloseWindowSeconds;
+	}
+
+	public Integer getSoftCloseExtensionSeconds() {
+		return softCloseExtensionSeconds;
+	}
+
+	public void setSoftCloseExtensionSeconds(Integer softCloseExtensionSeconds) {
+		this.softCloseExtensionSeconds = softCloseExtensionSeconds;
+	}
+
+	public LocalDateTime getClosedAt() {
+		return closedAt;
+	}
+
+	public void setClosedAt(LocalDateTime closedAt) {
+		this.closedAt = closedAt;
+	}
+
+	public BigDecimal getFinalPrice() {
+		return finalPrice;
+	}
+
+	public void setFinalPrice(BigDecimal finalPrice) {
+		this.finalPrice = finalPrice;
+	}
+
+	public Bid getWinningBid() {
+		return winningBid;
+	}
+
+	public void setWinningBid(Bid winningBid) {
+		this.winningBid = winningBid;
+	}
+
 	public List<Bid> getBids() {
 		return bids;
 	}
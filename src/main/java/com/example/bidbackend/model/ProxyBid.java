@@ -0,0 +1,79 @@
+package com.example.bidbackend.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A bidder's hidden maximum for one product. Only the bids it produces are visible.
+ */
+@Entity
+@Table(name = "proxy_bids", uniqueConstraints = {
+		@UniqueConstraint(name = "uk_proxy_bids_product_bidder", columnNames = {"product_id", "bidder_name"})
+})
+public class ProxyBid {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ManyToOne(optional = false, fetch = FetchType.LAZY)
+	@JoinColumn(name = "product_id", nullable = false)
+	@JsonIgnore
+	private Product product;
+
+	@NotBlank
+	@Column(name = "bidder_name", nullable = false)
+	private String bidderName;
+
+	@NotNull
+	@Column(nullable = false, precision = 19, scale = 2)
+	private BigDecimal maxAmount;
+
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Product getProduct() {
+		return product;
+	}
+
+	public void setProduct(Product product) {
+		this.product = product;
+	}
+
+	public String getBidderName() {
+		return bidderName;
+	}
+
+	public void setBidderName(String bidderName) {
+		this.bidderName = bidderName;
+	}
+
+	public BigDecimal getMaxAmount() {
+		return maxAmount;
+	}
+
+	public void setMaxAmount(BigDecimal maxAmount) {
+		this.maxAmount = maxAmount;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(LocalDateTime createdAt) {
+		this.createdAt = createdAt;
+	}
+}
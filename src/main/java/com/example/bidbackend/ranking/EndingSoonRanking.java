@@ -0,0 +1,115 @@
+package com.example.bidbackend.ranking;
+
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.event.AuctionEvent;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.model.Product;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Open auctions ordered by deadline, kept in a skip list so the first page is read in O(K).
+ *
+ * <p>Filled from the auction book at startup and kept current from auction events (soft-close
+ * extensions, seller edits, closes) and product creates and deletes. The set holds exactly one entry
+ * per open auction; replacing it is serialized per product.
+ */
+@Component
+public class EndingSoonRanking {
+	private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::endTime).thenComparingLong(Entry::productId);
+
+	private final AuctionBook auctionBook;
+	private final NavigableSet<Entry> byEndTime = new ConcurrentSkipListSet<>(ORDER);
+	private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+	public EndingSoonRanking(AuctionBook auctionBook) {
+		this.auctionBook = auctionBook;
+	}
+
+	private record Entry(LocalDateTime endTime, long productId) {}
+
+	@PostConstruct
+	void load() {
+		for (AuctionSnapshot snapshot : auctionBook.snapshots()) {
+			if (!snapshot.closed()) {
+				track(snapshot.productId(), snapshot.endTime());
+			}
+		}
+	}
+
+	/**
+	 * Ids of the open auctions closing next, soonest first. Auctions whose deadline has passed but that
+	 * the closer has not reached yet are skipped.
+	 */
+	public List<Long> top(int limit, LocalDateTime now) {
+		List<Long> ids = new ArrayList<>(limit);
+		for (Entry entry : byEndTime.tailSet(new Entry(now, Long.MIN_VALUE), true)) {
+			if (ids.size() == limit) {
+				break;
+			}
+			ids.add(entry.productId());
+		}
+		return ids;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	@EventListener
+	public void onAuctionEvent(AuctionEvent event) {
+		// published under the product's lock, so the book already holds the state the event describes
+		AuctionSnapshot snapshot = auctionBook.get(event.productId());
+		if (snapshot == null || snapshot.closed()) {
+			untrack(event.productId());
+		} else {
+			track(event.productId(), event.endTime());
+		}
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		Product product = event.product();
+		if (event.type() == ProductChangedEvent.Type.DELETED) {
+			untrack(product.getId());
+		} else if (event.type() == ProductChangedEvent.Type.CREATED) {
+			// a bid may already have been applied, and its deadline wins
+			entries.computeIfAbsent(product.getId(), id -> {
+				Entry entry = new Entry(product.getEndTime(), id);
+				byEndTime.add(entry);
+				return entry;
+			});
+		}
+		// edits reach the auction book first and come back as PRICE_CHANGED
+	}
+
+	private void track(Long productId, LocalDateTime endTime) {
+		entries.compute(productId, (id, previous) -> {
+			Entry next = new Entry(endTime, id);
+			if (previous != null && !previous.equals(next)) {
+				byEndTime.remove(previous);
+			}
+			byEndTime.add(next);
+			return next;
+		});
+	}
+
+	private void untrack(Long productId) {
+		entries.computeIfPresent(productId, (id, previous) -> {
+			byEndTime.remove(previous);
+			return null;
+		});
+	}
+}
@@ -0,0 +1,171 @@
+package com.example.bidbackend.ranking;
+
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.event.AuctionEvent;
+import com.example.bidbackend.event.ProductChangedEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open auctions with the most bids in the last {@code app.rankings.hot-window}.
+ *
+ * <p>Every auction that received a bid inside the window has a ring of per-bucket counters; a bid bumps
+ * the counter of the current bucket, and buckets older than the window drop out of the sum. A refresher
+ * rebuilds the top {@code app.rankings.hot-size} every {@code app.rankings.hot-refresh} with a bounded
+ * heap over the auctions that have counters, which is only the recently active part of the catalog, and
+ * publishes it as an immutable list. Reads take a prefix of that list. Counters start empty after a
+ * restart and fill up within one window.
+ */
+@Component
+public class HotAuctionRanking implements SmartLifecycle {
+	// most bids first; among equals the older listing first
+	private static final Comparator<Ranked> ORDER = Comparator.comparingLong(Ranked::recentBids).reversed()
+			.thenComparingLong(Ranked::productId);
+
+	private final AuctionBook auctionBook;
+	private final WorkerThreads workerThreads;
+	private final AppProperties.Rankings config;
+	private final long bucketMillis;
+	private final Map<Long, Velocity> active = new ConcurrentHashMap<>();
+
+	private volatile List<Ranked> ranking = List.of();
+	private volatile boolean running;
+	private ScheduledExecutorService refresher;
+
+	public HotAuctionRanking(AuctionBook auctionBook, WorkerThreads workerThreads, AppProperties appProperties) {
+		this.auctionBook = auctionBook;
+		this.workerThreads = workerThreads;
+		this.config = appProperties.rankings();
+		this.bucketMillis = Math.max(1, config.hotWindow().toMillis() / config.hotBuckets());
+	}
+
+	/**
+	 * An auction and the number of bids it received inside the window.
+	 */
+	public record Ranked(long productId, long recentBids) {}
+
+	@Override
+	public void start() {
+		running = true;
+		refresher = Executors.newSingleThreadScheduledExecutor(workerThreads.factory("hot-auctions-"));
+		long period = config.hotRefresh().toMillis();
+		refresher.scheduleWithFixedDelay(this::refresh, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		refresher.shutdownNow();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * The hottest auctions as of the last refresh, hottest first.
+	 */
+	public List<Ranked> top(int limit) {
+		List<Ranked> current = ranking;
+		return current.subList(0, Math.min(limit, current.size()));
+	}
+
+	public int activeCount() {
+		return active.size();
+	}
+
+	@EventListener
+	public void onAuctionEvent(AuctionEvent event) {
+		if (event.type() == AuctionEvent.Type.BID_ACCEPTED) {
+			// bids on one product are published under its lock, so a ring has one writer at a time
+			active.computeIfAbsent(event.productId(), id -> new Velocity(config.hotBuckets()))
+					.record(System.currentTimeMillis() / bucketMillis);
+		} else if (event.type() == AuctionEvent.Type.AUCTION_CLOSED) {
+			active.remove(event.productId());
+		}
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.type() == ProductChangedEvent.Type.DELETED) {
+			active.remove(event.productId());
+		}
+	}
+
+	void refresh() {
+		long bucket = System.currentTimeMillis() / bucketMillis;
+		int size = config.hotSize();
+		PriorityQueue<Ranked> heap = new PriorityQueue<>(size + 1, ORDER.reversed());
+		for (Map.Entry<Long, Velocity> entry : active.entrySet()) {
+			Velocity velocity = entry.getValue();
+			long bids = velocity.sum(bucket);
+			AuctionSnapshot auction = auctionBook.get(entry.getKey());
+			if (bids == 0 || auction == null || auction.closed()) {
+				// a bid racing with this removal is lost from the ranking, which only ever approximates
+				active.remove(entry.getKey(), velocity);
+				continue;
+			}
+			if (heap.size() < size) {
+				heap.add(new Ranked(entry.getKey(), bids));
+			} else if (bids > heap.peek().recentBids()) {
+				heap.poll();
+				heap.add(new Ranked(entry.getKey(), bids));
+			}
+		}
+		Ranked[] top = heap.toArray(new Ranked[0]);
+		Arrays.sort(top, ORDER);
+		ranking = List.of(top);
+	}
+
+	/**
+	 * Bid counts of one auction in a ring of {@code buckets} time buckets; each slot remembers which
+	 * bucket its count belongs to, so stale slots are reset lazily instead of by a timer.
+	 */
+	private static final class Velocity {
+		private final int buckets;
+		private final AtomicLongArray counts;
+		private final AtomicLongArray epochs;
+
+		private Velocity(int buckets) {
+			this.buckets = buckets;
+			this.counts = new AtomicLongArray(buckets);
+			this.epochs = new AtomicLongArray(buckets);
+		}
+
+		private void record(long bucket) {
+			int slot = (int) (bucket % buckets);
+			if (epochs.get(slot) != bucket) {
+				counts.set(slot, 0);
+				epochs.set(slot, bucket);
+			}
+			counts.incrementAndGet(slot);
+		}
+
+		private long sum(long bucket) {
+			long total = 0;
+			for (int slot = 0; slot < buckets; slot++) {
+				if (epochs.get(slot) > bucket - buckets) {
+					total += counts.get(slot);
+				}
+			}
+			return total;
+		}
+	}
+}
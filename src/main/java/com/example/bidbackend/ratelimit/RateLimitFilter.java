@@ -0,0 +1,133 @@
+package com.example.bidbackend.ratelimit;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the per-IP and per-IP-and-product limits of {@code app.rate-limits.routes} before a request
+ * reaches Spring MVC, so a rejected request costs a pattern match and a bucket update: no body parsing,
+ * no multipart spooling and no database. Rejections are answered with 429 and {@code Retry-After}.
+ *
+ * <p>The client address is the connection's, or the one forwarded by a trusted proxy when
+ * {@code server.forward-headers-strategy} is set.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+	private final RateLimiter rateLimiter;
+	private final ObjectMapper objectMapper;
+	private final boolean enabled;
+	private final List<CompiledRoute> routes = new ArrayList<>();
+
+	public RateLimitFilter(
+			RateLimiter rateLimiter,
+			ObjectMapper objectMapper,
+			MeterRegistry meterRegistry,
+			AppProperties appProperties
+	) {
+		this.rateLimiter = rateLimiter;
+		this.objectMapper = objectMapper;
+		AppProperties.RateLimits config = appProperties.rateLimits();
+		this.enabled = config.enabled();
+		PathPatternParser parser = new PathPatternParser();
+		for (Map.Entry<String, AppProperties.RateLimits.Route> route : config.routes().entrySet()) {
+			routes.add(new CompiledRoute(
+					route.getKey(),
+					route.getValue().method(),
+					parser.parse(route.getValue().path()),
+					route.getValue().perIp(),
+					route.getValue().perIpAndProduct(),
+					Counter.builder("ratelimit.rejected")
+							.description("Requests turned away by a rate limit")
+							.tag("route", route.getKey())
+							.register(meterRegistry)
+			));
+		}
+	}
+
+	private record CompiledRoute(
+			String name,
+			String method,
+			PathPattern pattern,
+			AppProperties.RateLimits.Limit perIp,
+			AppProperties.RateLimits.Limit perIpAndProduct,
+			Counter rejected
+	) {}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || routes.isEmpty();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		PathContainer path = null;
+		for (CompiledRoute route : routes) {
+			if (route.method() != null && !route.method().equalsIgnoreCase(request.getMethod())) {
+				continue;
+			}
+			if (path == null) {
+				path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+			}
+			PathPattern.PathMatchInfo match = route.pattern().matchAndExtract(path);
+			if (match == null) {
+				continue;
+			}
+			String ip = request.getRemoteAddr();
+			long wait = 0;
+			if (route.perIp() != null) {
+				wait = rateLimiter.tryAcquire(route.name() + "|" + ip, route.perIp());
+			}
+			String productId = match.getUriVariables().get("id");
+			if (wait == 0 && route.perIpAndProduct() != null && productId != null) {
+				wait = rateLimiter.tryAcquire(route.name() + "|" + ip + "|" + productId, route.perIpAndProduct());
+			}
+			if (wait > 0) {
+				route.rejected().increment();
+				reject(request, response, wait);
+				return;
+			}
+			break;
+		}
+		chain.doFilter(request, response);
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+		HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ApiError(
+				Instant.now(),
+				status.value(),
+				status.getReasonPhrase(),
+				"Too many requests",
+				request.getRequestURI()
+		));
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.bidbackend.ratelimit;
+
+import com.example.bidbackend.config.AppProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets, one per key, in a bounded map that forgets idle keys.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the next request
+ * (the generic cell rate algorithm, which behaves exactly like a token bucket): a request is allowed when
+ * that time is at most {@code burst} intervals ahead of now and pushes it one interval further. Updates
+ * are a compare-and-set, so callers never block, and a rejection touches nothing but the map.
+ */
+@Component
+public class RateLimiter {
+	private final Cache<String, AtomicLong> buckets;
+
+	public RateLimiter(AppProperties appProperties) {
+		AppProperties.RateLimits config = appProperties.rateLimits();
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(config.maxKeys())
+				.expireAfterAccess(config.idleExpiry())
+				.build();
+	}
+
+	/**
+	 * Takes a token from the bucket of {@code key}. Returns 0 if the request may proceed, otherwise the
+	 * nanoseconds until it would be allowed.
+	 */
+	public long tryAcquire(String key, AppProperties.RateLimits.Limit limit) {
+		long interval = (long) (1_000_000_000L / limit.perSecond());
+		long tolerance = interval * limit.burst();
+		AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+		while (true) {
+			long now = System.nanoTime();
+			long arrival = bucket.get();
+			long next = (arrival == Long.MIN_VALUE || arrival - now < 0 ? now : arrival) + interval;
+			long ahead = next - now;
+			if (ahead > tolerance) {
+				return ahead - tolerance;
+			}
+			if (bucket.compareAndSet(arrival, next)) {
+				return 0;
+			}
+		}
+	}
+
+	public long size() {
+		return buckets.estimatedSize();
+	}
+}
@@ -1,12 +1,57 @@
 package com.example.bidbackend.repository;
 
+import com.example.bidbackend.dto.BidExportRow;
 import com.example.bidbackend.model.Bid;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BidRepository extends JpaRepository<Bid, Long> {
 	Optional<Bid> findTopByProductIdOrderByAmountDescCreatedAtDesc(Long productId);
-	List<Bid> findByProductIdOrderByAmountDescCreatedAtDesc(Long productId);
+
+	// accepted bids strictly raise the price, so the amount identifies a bid within its product
+	@Query("select b.amount from Bid b where b.product.id = :productId and b.amount >= :from")
+	List<BigDecimal> findAmountsFrom(Long productId, BigDecimal from);
+
+	@Query("select b from Bid b where b.product.id = :productId order by b.amount desc, b.createdAt desc, b.id desc")
+	List<Bid> findPage(Long productId, Limit limit);
+
+	@Query("""
+			select b from Bid b
+			where b.product.id = :productId
+				and (b.amount < :amount
+					or (b.amount = :amount and (b.createdAt < :createdAt
+						or (b.createdAt = :createdAt and b.id < :id))))
+			order by b.amount desc, b.createdAt desc, b.id desc""")
+	List<Bid> findPageAfter(Long productId, BigDecimal amount, LocalDateTime createdAt, Long id, Limit limit);
+
+	@Query("""
+			select new com.example.bidbackend.dto.BidExportRow(b.id, b.product.id, b.amount, b.bidderName, b.createdAt)
+			from Bid b
+			where (:productId is null or b.product.id = :productId)
+				and (:from is null or b.createdAt >= :from)
+				and (:to is null or b.createdAt < :to)
+			order by b.id""")
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	Stream<BidExportRow> streamForExport(Long productId, LocalDateTime from, LocalDateTime to);
+
+	@Query("select b from Bid b where b.amount = (select max(b2.amount) from Bid b2 where b2.product = b.product)")
+	List<Bid> findTopBidPerProduct();
+
+	@Modifying
+	@Query("delete from Bid b where b.product.id = :productId")
+	int deleteAllByProductId(Long productId);
 }
@@ -0,0 +1,22 @@
+package com.example.bidbackend.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters and keyset position for one page of product listings; null fields are not applied.
+ */
+public record ProductListingQuery(
+		String sellerKey,
+		Status status,
+		BigDecimal minPrice,
+		BigDecimal maxPrice,
+		LocalDateTime afterCreatedAt,
+		Long afterId,
+		int limit
+) {
+	public enum Status {
+		ACTIVE,
+		SOLD
+	}
+}
@@ -0,0 +1,12 @@
+package com.example.bidbackend.repository;
+
+import com.example.bidbackend.dto.ProductSummary;
+
+import java.util.List;
+
+public interface ProductListingRepository {
+	/**
+	 * Returns up to {@code query.limit()} summaries ordered by createdAt and id, newest first.
+	 */
+	List<ProductSummary> findSummaries(ProductListingQuery query);
+}
@@ -0,0 +1,58 @@
+package com.example.bidbackend.repository;
+
+import com.example.bidbackend.dto.ProductSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Builds only the predicates that are actually set, so every variant stays index-friendly.
+class ProductListingRepositoryImpl implements ProductListingRepository {
+	private static final String CURRENT_PRICE =
+			"coalesce((select max(b.amount) from Bid b where b.product = p), p.startingPrice)";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<ProductSummary> findSummaries(ProductListingQuery query) {
+		List<String> where = new ArrayList<>();
+		Map<String, Object> params = new HashMap<>();
+
+		if (query.sellerKey() != null) {
+			where.add("p.sellerKey = :sellerKey");
+			params.put("sellerKey", query.sellerKey());
+		}
+		if (query.status() != null) {
+			where.add(query.status() == ProductListingQuery.Status.ACTIVE ? "p.closedAt is null" : "p.closedAt is not null");
+		}
+		if (query.minPrice() != null) {
+			where.add(CURRENT_PRICE + " >= :minPrice");
+			params.put("minPrice", query.minPrice());
+		}
+		if (query.maxPrice() != null) {
+			where.add(CURRENT_PRICE + " <= :maxPrice");
+			params.put("maxPrice", query.maxPrice());
+		}
+		if (query.afterCreatedAt() != null) {
+			where.add("(p.createdAt < :afterCreatedAt or (p.createdAt = :afterCreatedAt and p.id < :afterId))");
+			params.put("afterCreatedAt", query.afterCreatedAt());
+			params.put("afterId", query.afterId());
+		}
+
+		StringBuilder jpql = new StringBuilder(ProductRepository.SUMMARY_SELECT);
+		if (!where.isEmpty()) {
+			jpql.append("where ").append(String.join(" and ", where)).append(' ');
+		}
+		jpql.append("order by p.createdAt desc, p.id desc");
+
+		TypedQuery<ProductSummary> q = entityManager.createQuery(jpql.toString(), ProductSummary.class);
+		params.forEach(q::setParameter);
+		q.setMaxResults(query.limit());
+		return q.getResultList();
+	}
+}
@@ -1,11 +1,77 @@
 package com.example.bidbackend.repository;
 
+import com.example.bidbackend.auction.AuctionSeed;
+import com.example.bidbackend.dto.ImageUsage;
+import com.example.bidbackend.dto.SearchDocument;
+import com.example.bidbackend.model.Bid;
 import com.example.bidbackend.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-	List<Product> findBySellerNameIgnoreCaseOrderByCreatedAtDesc(String sellerName);
-	List<Product> findAllByOrderByCreatedAtDesc();
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductListingRepository {
+	String SUMMARY_SELECT = """
+			select new com.example.bidbackend.dto.ProductSummary(
+				p.id,
+				p.sellerName,
+				p.name,
+				p.description,
+				p.startingPrice,
+				p.endTime,
+				p.createdAt,
+				p.closedAt,
+				p.imageFilename,
+				(select max(b.amount) from Bid b where b.product = p),
+				(select count(b) from Bid b where b.product = p))
+			from Product p
+			""";
+
+	@Query("""
+			select new com.example.bidbackend.auction.AuctionSeed(
+				p.id,
+				p.startingPrice,
+				p.endTime,
+				p.closedAt,
+				p.softCloseWindowSeconds,
+				p.softCloseExtensionSeconds,
+				(select max(b.amount) from Bid b where b.product = p),
+				(select count(b) from Bid b where b.product = p))
+			from Product p""")
+	List<AuctionSeed> findAuctionSeeds();
+
+	@Modifying
+	@Query("update Product p set p.closedAt = :closedAt, p.finalPrice = :finalPrice, p.winningBid = :winningBid where p.id = :id")
+	int markClosed(Long id, LocalDateTime closedAt, BigDecimal finalPrice, Bid winningBid);
+
+	@Modifying
+	@Query("update Product p set p.endTime = :endTime where p.id = :id and p.endTime < :endTime")
+	int extendEndTime(Long id, LocalDateTime endTime);
+
+	@Modifying
+	@Query("update Product p set p.endTime = :restored where p.id = :id and p.endTime = :extended")
+	int restoreEndTime(Long id, LocalDateTime extended, LocalDateTime restored);
+
+	@Modifying
+	@Query("update Product p set p.winningBid = null where p.id = :id")
+	int clearWinningBid(Long id);
+
+	@Modifying
+	@Query("delete from Product p where p.id = :id")
+	int deleteListing(Long id);
+
+	boolean existsByImageFilename(String imageFilename);
+
+	@Query("""
+			select new com.example.bidbackend.dto.ImageUsage(p.imageFilename, count(p))
+			from Product p
+			where p.imageFilename is not null
+			group by p.imageFilename""")
+	List<ImageUsage> findImageUsages();
+
+	@Query("select new com.example.bidbackend.dto.SearchDocument(p.id, p.name, p.description, p.sellerName) from Product p")
+	List<SearchDocument> findSearchDocuments();
 }
@@ -0,0 +1,20 @@
+package com.example.bidbackend.repository;
+
+import com.example.bidbackend.model.ProxyBid;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ProxyBidRepository extends JpaRepository<ProxyBid, Long> {
+	Optional<ProxyBid> findByProductIdAndBidderName(Long productId, String bidderName);
+
+	@Query("select pb from ProxyBid pb where pb.product.closedAt is null")
+	List<ProxyBid> findAllForOpenAuctions();
+
+	@Modifying
+	@Query("delete from ProxyBid pb where pb.product.id = :productId")
+	int deleteAllByProductId(Long productId);
+}
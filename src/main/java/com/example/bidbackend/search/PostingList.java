@@ -0,0 +1,84 @@
+package com.example.bidbackend.search;
+
+import java.util.Arrays;
+
+/**
+ * Products containing one term, by ascending id, each with a bit mask of the fields it occurs in.
+ * Not thread-safe: {@link ProductSearchIndex} guards every list with its lock.
+ */
+final class PostingList {
+	static final byte NAME = 1;
+	static final byte SELLER = 2;
+	static final byte DESCRIPTION = 4;
+
+	final String term;
+	private long[] ids = new long[2];
+	private byte[] fields = new byte[2];
+	private int size;
+
+	PostingList(String term) {
+		this.term = term;
+	}
+
+	int size() {
+		return size;
+	}
+
+	long id(int index) {
+		return ids[index];
+	}
+
+	byte fields(int index) {
+		return fields[index];
+	}
+
+	void add(long id, byte mask) {
+		// new products have the highest ids, so this is an append in the common case
+		int at = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+		if (at >= 0) {
+			fields[at] |= mask;
+			return;
+		}
+		at = -(at + 1);
+		if (size == ids.length) {
+			int capacity = size + (size >> 1) + 1;
+			ids = Arrays.copyOf(ids, capacity);
+			fields = Arrays.copyOf(fields, capacity);
+		}
+		System.arraycopy(ids, at, ids, at + 1, size - at);
+		System.arraycopy(fields, at, fields, at + 1, size - at);
+		ids[at] = id;
+		fields[at] = mask;
+		size++;
+	}
+
+	void remove(long id) {
+		int at = Arrays.binarySearch(ids, 0, size, id);
+		if (at < 0) {
+			return;
+		}
+		System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+		System.arraycopy(fields, at + 1, fields, at, size - at - 1);
+		size--;
+	}
+
+	/**
+	 * Returns the index of the first id at or after {@code id}, searching from {@code from} on; {@link #size()}
+	 * if there is none. Gallops first, so walking a long list with ids from a short one stays cheap.
+	 */
+	int seek(long id, int from) {
+		if (from >= size || ids[from] >= id) {
+			return from;
+		}
+		int low = from;
+		int step = 1;
+		int high = from + step;
+		while (high < size && ids[high] < id) {
+			low = high;
+			step <<= 1;
+			high = from + step;
+		}
+		int at = Arrays.binarySearch(ids, low + 1, Math.min(high + 1, size), id);
+		return at >= 0 ? at : -(at + 1);
+	}
+}
@@ -0,0 +1,510 @@
+package com.example.bidbackend.search;
+
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.SearchDocument;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.model.Product;
+import com.example.bidbackend.repository.ProductListingQuery;
+import com.example.bidbackend.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, description and seller.
+ *
+ * <p>Every term maps to a {@link PostingList} of product ids. A query matches products that contain all
+ * of its terms; the last term also matches as a prefix while the user is still typing it, expanded to at
+ * most {@code app.search.max-prefix-terms} of the most common completions. Lists are intersected from the
+ * shortest up, so a rare term keeps a query over common ones cheap. A product scores the sum, over the
+ * query terms, of the term's inverse document frequency times the weight of the best field it occurs in.
+ *
+ * <p>Status and price come from the {@link AuctionBook}, so filters always see the live price. Only the
+ * best {@code limit} hits after the cursor are kept while the matches are walked.
+ *
+ * <p>The index is rebuilt from the database at startup and follows product changes after they commit.
+ */
+@Component
+public class ProductSearchIndex {
+	private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+	private static final double NAME_WEIGHT = 3.0;
+	private static final double SELLER_WEIGHT = 2.0;
+	private static final double DESCRIPTION_WEIGHT = 1.0;
+	// a completion of the typed prefix counts less than the word typed in full
+	private static final double COMPLETION_WEIGHT = 0.5;
+
+	private final ProductRepository productRepository;
+	private final AuctionBook auctionBook;
+	private final AppProperties.Search config;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+	private final Map<Long, PostingList[]> documents = new HashMap<>();
+
+	public ProductSearchIndex(ProductRepository productRepository, AuctionBook auctionBook, AppProperties appProperties) {
+		this.productRepository = productRepository;
+		this.auctionBook = auctionBook;
+		this.config = appProperties.search();
+	}
+
+	/**
+	 * A parsed search: filters are null when not applied, {@code after} is the last hit of the previous page.
+	 */
+	public record Query(
+			String text,
+			ProductListingQuery.Status status,
+			BigDecimal minPrice,
+			BigDecimal maxPrice,
+			SearchSort sort,
+			Hit after,
+			int limit
+	) {}
+
+	/**
+	 * A matching product with the keys it was ordered by.
+	 */
+	public record Hit(long productId, double score, boolean closed, LocalDateTime endTime) {}
+
+	@PostConstruct
+	void rebuild() {
+		List<SearchDocument> all = productRepository.findSearchDocuments();
+		for (SearchDocument document : all) {
+			put(document);
+		}
+		log.info("Search index built with {} products and {} terms", all.size(), termCount());
+	}
+
+	/**
+	 * Indexes a product, replacing what was indexed for it before.
+	 */
+	public void put(SearchDocument document) {
+		Map<String, Byte> fields = new LinkedHashMap<>();
+		addTerms(fields, document.name(), PostingList.NAME);
+		addTerms(fields, document.sellerName(), PostingList.SELLER);
+		addTerms(fields, document.description(), PostingList.DESCRIPTION);
+		long id = document.id();
+
+		lock.writeLock().lock();
+		try {
+			removeLocked(id);
+			PostingList[] lists = new PostingList[fields.size()];
+			int i = 0;
+			for (Map.Entry<String, Byte> field : fields.entrySet()) {
+				PostingList list = terms.computeIfAbsent(field.getKey(), PostingList::new);
+				list.add(id, field.getValue());
+				lists[i++] = list;
+			}
+			documents.put(id, lists);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(Long productId) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(productId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int termCount() {
+		lock.readLock().lock();
+		try {
+			return terms.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * True when the text ends in the middle of a word, whose last term is then matched as a prefix.
+	 */
+	public static boolean endsInWord(String text) {
+		return text != null && Tokenizer.endsInWord(text);
+	}
+
+	/**
+	 * Returns up to {@code query.limit()} hits after {@code query.after()}, in {@code query.sort()} order.
+	 */
+	public List<Hit> search(Query query) {
+		List<String> tokens = Tokenizer.tokens(query.text());
+		if (tokens.isEmpty()) {
+			return List.of();
+		}
+		String prefix = null;
+		String last = tokens.get(tokens.size() - 1);
+		if (Tokenizer.endsInWord(query.text()) && last.length() >= config.minPrefixLength()) {
+			prefix = last;
+			tokens = tokens.subList(0, tokens.size() - 1);
+		}
+		TopHits top = new TopHits(query.sort(), query.after(), query.limit());
+
+		lock.readLock().lock();
+		try {
+			double documentCount = documents.size();
+			List<Clause> clauses = new ArrayList<>(tokens.size() + 1);
+			for (String token : tokens) {
+				PostingList list = terms.get(token);
+				if (list == null) {
+					return List.of();
+				}
+				clauses.add(new TermClause(list, idf(list, documentCount)));
+			}
+			if (prefix != null) {
+				List<PostingList> completions = completions(prefix);
+				if (completions.isEmpty()) {
+					return List.of();
+				}
+				clauses.add(new PrefixClause(prefix, completions, documentCount));
+			}
+			clauses.sort(Comparator.comparingLong(Clause::size));
+
+			Clause driver = clauses.get(0);
+			candidates:
+			while (driver.advanceDriver()) {
+				long id = driver.driverId();
+				double score = driver.driverScore();
+				for (int c = 1; c < clauses.size(); c++) {
+					double s = clauses.get(c).probe(id);
+					if (s < 0) {
+						continue candidates;
+					}
+					score += s;
+				}
+				AuctionSnapshot auction = auctionBook.get(id);
+				if (auction == null || !matches(auction, query)) {
+					continue;
+				}
+				top.offer(id, score, auction);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return top.sorted();
+	}
+
+	// runs before the catalog cache moves its version, so a cached search page never predates the change
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		Product product = event.product();
+		if (event.type() == ProductChangedEvent.Type.DELETED) {
+			remove(product.getId());
+			return;
+		}
+		put(new SearchDocument(product.getId(), product.getName(), product.getDescription(), product.getSellerName()));
+	}
+
+	private void removeLocked(long id) {
+		PostingList[] lists = documents.remove(id);
+		if (lists == null) {
+			return;
+		}
+		for (PostingList list : lists) {
+			list.remove(id);
+			if (list.size() == 0) {
+				terms.remove(list.term);
+			}
+		}
+	}
+
+	private List<PostingList> completions(String prefix) {
+		List<PostingList> completions = new ArrayList<>(terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+		if (completions.size() > config.maxPrefixTerms()) {
+			completions.sort(Comparator.comparingInt(PostingList::size).reversed());
+			completions = completions.subList(0, config.maxPrefixTerms());
+		}
+		return completions;
+	}
+
+	private static boolean matches(AuctionSnapshot auction, Query query) {
+		if (query.status() != null && auction.closed() != (query.status() == ProductListingQuery.Status.SOLD)) {
+			return false;
+		}
+		if (query.minPrice() != null && auction.currentPrice().compareTo(query.minPrice()) < 0) {
+			return false;
+		}
+		return query.maxPrice() == null || auction.currentPrice().compareTo(query.maxPrice()) <= 0;
+	}
+
+	private static Comparator<Hit> order(SearchSort sort) {
+		Comparator<Hit> primary = switch (sort) {
+			case RELEVANCE -> Comparator.comparingDouble(Hit::score).reversed();
+			case ENDING_SOON -> Comparator.comparing(Hit::closed).thenComparing(Hit::endTime);
+		};
+		return primary.thenComparingLong(Hit::productId);
+	}
+
+	private static double idf(PostingList list, double documentCount) {
+		double df = list.size();
+		return Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+	}
+
+	private static double weight(byte fields) {
+		if ((fields & PostingList.NAME) != 0) {
+			return NAME_WEIGHT;
+		}
+		if ((fields & PostingList.SELLER) != 0) {
+			return SELLER_WEIGHT;
+		}
+		return DESCRIPTION_WEIGHT;
+	}
+
+	private static void addTerms(Map<String, Byte> fields, String text, byte field) {
+		for (String token : Tokenizer.tokens(text)) {
+			fields.merge(token, field, (a, b) -> (byte) (a | b));
+		}
+	}
+
+	/**
+	 * One query term. The shortest clause drives the walk over candidate ids; the others are probed with
+	 * ascending ids and answer the id's score, or -1 if they do not contain it.
+	 */
+	private abstract static class Clause {
+		abstract long size();
+
+		// moves the driver to its next id in ascending order; false once there is none
+		abstract boolean advanceDriver();
+
+		abstract long driverId();
+
+		abstract double driverScore();
+
+		abstract double probe(long id);
+	}
+
+	private static final class TermClause extends Clause {
+		private final PostingList list;
+		private final double idf;
+		private int cursor;
+		private int position = -1;
+
+		private TermClause(PostingList list, double idf) {
+			this.list = list;
+			this.idf = idf;
+		}
+
+		@Override
+		long size() {
+			return list.size();
+		}
+
+		@Override
+		boolean advanceDriver() {
+			return ++position < list.size();
+		}
+
+		@Override
+		long driverId() {
+			return list.id(position);
+		}
+
+		@Override
+		double driverScore() {
+			return score(position);
+		}
+
+		@Override
+		double probe(long id) {
+			cursor = list.seek(id, cursor);
+			return cursor < list.size() && list.id(cursor) == id ? score(cursor) : -1;
+		}
+
+		private double score(int index) {
+			return idf * weight(list.fields(index));
+		}
+	}
+
+	/**
+	 * The completions of the last, partly typed term; a product scores its best completion. As the driver
+	 * it merges the completion lists lazily through a heap of their heads, so a short prefix costs memory
+	 * for its lists' cursors only, however many ids they hold.
+	 */
+	private static final class PrefixClause extends Clause {
+		private final PostingList[] lists;
+		private final double[] weights;
+		private final int[] cursors;
+		private final long size;
+		// min-heap of the indexes of the lists not yet exhausted, by the id at their cursor
+		private int[] heads;
+		private int headCount;
+		private long currentId;
+		private double currentScore;
+
+		private PrefixClause(String prefix, List<PostingList> completions, double documentCount) {
+			this.lists = completions.toArray(new PostingList[0]);
+			this.weights = new double[lists.length];
+			this.cursors = new int[lists.length];
+			long total = 0;
+			for (int i = 0; i < lists.length; i++) {
+				weights[i] = idf(lists[i], documentCount) * (lists[i].term.equals(prefix) ? 1.0 : COMPLETION_WEIGHT);
+				total += lists[i].size();
+			}
+			this.size = total;
+		}
+
+		@Override
+		long size() {
+			return size;
+		}
+
+		// takes the smallest head and every other list at the same id, keeping the best score
+		@Override
+		boolean advanceDriver() {
+			if (heads == null) {
+				heads = new int[lists.length];
+				for (int l = 0; l < lists.length; l++) {
+					if (lists[l].size() > 0) {
+						heads[headCount++] = l;
+					}
+				}
+				for (int i = headCount / 2 - 1; i >= 0; i--) {
+					siftDown(i);
+				}
+			}
+			if (headCount == 0) {
+				return false;
+			}
+			currentId = headId(heads[0]);
+			currentScore = -1;
+			do {
+				int l = heads[0];
+				currentScore = Math.max(currentScore, weights[l] * weight(lists[l].fields(cursors[l])));
+				if (++cursors[l] >= lists[l].size()) {
+					heads[0] = heads[--headCount];
+				}
+				siftDown(0);
+			} while (headCount > 0 && headId(heads[0]) == currentId);
+			return true;
+		}
+
+		@Override
+		long driverId() {
+			return currentId;
+		}
+
+		@Override
+		double driverScore() {
+			return currentScore;
+		}
+
+		@Override
+		double probe(long id) {
+			double best = -1;
+			for (int l = 0; l < lists.length; l++) {
+				int at = lists[l].seek(id, cursors[l]);
+				cursors[l] = at;
+				if (at < lists[l].size() && lists[l].id(at) == id) {
+					best = Math.max(best, weights[l] * weight(lists[l].fields(at)));
+				}
+			}
+			return best;
+		}
+
+		private long headId(int list) {
+			return lists[list].id(cursors[list]);
+		}
+
+		private void siftDown(int i) {
+			int list = heads[i];
+			long id = i < headCount ? headId(list) : 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= headCount) {
+					break;
+				}
+				if (child + 1 < headCount && headId(heads[child + 1]) < headId(heads[child])) {
+					child++;
+				}
+				if (headId(heads[child]) >= id) {
+					break;
+				}
+				heads[i] = heads[child];
+				i = child;
+			}
+			heads[i] = list;
+		}
+	}
+
+	/**
+	 * Bounded heap of the best hits after the cursor; the worst kept hit is on top, so a candidate that
+	 * does not beat it is dropped without allocating.
+	 */
+	private static final class TopHits {
+		private final SearchSort sort;
+		private final Comparator<Hit> order;
+		private final Hit after;
+		private final int limit;
+		private final PriorityQueue<Hit> heap;
+
+		private TopHits(SearchSort sort, Hit after, int limit) {
+			this.sort = sort;
+			this.order = order(sort);
+			this.after = after;
+			this.limit = limit;
+			this.heap = new PriorityQueue<>(limit + 1, order.reversed());
+		}
+
+		private void offer(long id, double score, AuctionSnapshot auction) {
+			if (heap.size() == limit && losesOnPrimaryKey(score, auction, heap.peek())) {
+				return;
+			}
+			Hit hit = new Hit(id, score, auction.closed(), auction.endTime());
+			if (after != null && order.compare(hit, after) <= 0) {
+				return;
+			}
+			if (heap.size() < limit) {
+				heap.add(hit);
+			} else if (order.compare(hit, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(hit);
+			}
+		}
+
+		// candidates arrive by ascending id, so a tie on the sort key loses to every hit already kept
+		private boolean losesOnPrimaryKey(double score, AuctionSnapshot auction, Hit worst) {
+			return switch (sort) {
+				case RELEVANCE -> score <= worst.score();
+				case ENDING_SOON -> auction.closed() != worst.closed()
+						? auction.closed()
+						: !auction.endTime().isBefore(worst.endTime());
+			};
+		}
+
+		private List<Hit> sorted() {
+			Hit[] hits = heap.toArray(new Hit[0]);
+			Arrays.sort(hits, order);
+			return List.of(hits);
+		}
+	}
+}
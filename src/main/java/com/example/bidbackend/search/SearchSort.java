@@ -0,0 +1,11 @@
+package com.example.bidbackend.search;
+
+/**
+ * Result order of a product search; ties are broken by product id.
+ */
+public enum SearchSort {
+	/** Best match first. */
+	RELEVANCE,
+	/** Open auctions by deadline, soonest first, then closed ones. */
+	ENDING_SOON
+}
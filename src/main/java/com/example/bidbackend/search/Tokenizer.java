@@ -0,0 +1,53 @@
+package com.example.bidbackend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into lower-case terms on everything that is not a letter or digit. Accents are folded,
+ * so "Café" and "cafe" are the same term.
+ */
+final class Tokenizer {
+	private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+	private Tokenizer() {}
+
+	static List<String> tokens(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		String folded = fold(text);
+		int start = -1;
+		for (int i = 0; i <= folded.length(); i++) {
+			boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+			if (word && start < 0) {
+				start = i;
+			} else if (!word && start >= 0) {
+				tokens.add(folded.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * True when the text ends in the middle of a word, i.e. the user may still be typing it.
+	 */
+	static boolean endsInWord(String text) {
+		return !text.isEmpty() && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+	}
+
+	private static String fold(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) > 0x7f) {
+				String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+				return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+			}
+		}
+		return text.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,134 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.dto.BidExportRow;
+import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.repository.BidRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams the bid history straight from a database cursor to the response.
+ * Rows are unmanaged projections written one at a time, so memory stays flat however many bids match.
+ */
+@Service
+public class BidExportService {
+	private static final int BUFFER_BYTES = 64 * 1024;
+
+	private final BidRepository bidRepository;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate readOnly;
+
+	public BidExportService(BidRepository bidRepository, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+		this.bidRepository = bidRepository;
+		this.objectMapper = objectMapper;
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+	}
+
+	public enum Format {
+		JSONL("application/x-ndjson", "jsonl"),
+		CSV("text/csv", "csv");
+
+		private final String contentType;
+		private final String extension;
+
+		Format(String contentType, String extension) {
+			this.contentType = contentType;
+			this.extension = extension;
+		}
+
+		public String contentType() {
+			return contentType;
+		}
+
+		public String extension() {
+			return extension;
+		}
+
+		public static Format parse(String value) {
+			if (value == null || value.isBlank()) {
+				return JSONL;
+			}
+			try {
+				return valueOf(value.trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new ApiException(HttpStatus.BAD_REQUEST, "format must be jsonl or csv");
+			}
+		}
+	}
+
+	public StreamingResponseBody export(Format format, Long productId, LocalDateTime from, LocalDateTime to) {
+		if (from != null && to != null && !from.isBefore(to)) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "from must be before to");
+		}
+		// the body runs later on the async request thread, so the cursor's transaction is opened there
+		return out -> readOnly.executeWithoutResult(status -> {
+			try (Stream<BidExportRow> rows = bidRepository.streamForExport(productId, from, to)) {
+				Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_BYTES);
+				if (format == Format.CSV) {
+					writeCsv(rows, writer);
+				} else {
+					writeJsonLines(rows, writer);
+				}
+				writer.flush();
+			} catch (IOException e) {
+				// most likely the client went away; the cursor is closed on the way out
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	private void writeJsonLines(Stream<BidExportRow> rows, Writer writer) throws IOException {
+		// one generator for the whole export; per-row flushes would defeat the buffer
+		JsonGenerator json = objectMapper.createGenerator(writer)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM)
+				.setRootValueSeparator(null);
+		for (BidExportRow row : (Iterable<BidExportRow>) rows::iterator) {
+			objectMapper.writeValue(json, row);
+			json.writeRaw('\n');
+		}
+		json.close();
+	}
+
+	private static void writeCsv(Stream<BidExportRow> rows, Writer writer) throws IOException {
+		writer.write("id,productId,amount,bidderName,createdAt\n");
+		for (BidExportRow row : (Iterable<BidExportRow>) rows::iterator) {
+			writer.write(String.valueOf(row.id()));
+			writer.write(',');
+			writer.write(String.valueOf(row.productId()));
+			writer.write(',');
+			writer.write(row.amount().toPlainString());
+			writer.write(',');
+			writer.write(csv(row.bidderName()));
+			writer.write(',');
+			writer.write(row.createdAt().toString());
+			writer.write('\n');
+		}
+	}
+
+	private static String csv(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
@@ -1,58 +1,122 @@
 package com.example.bidbackend.service;
 
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.config.AppProperties;
 import com.example.bidbackend.dto.BidRequest;
+import com.example.bidbackend.dto.BidResponse;
+import com.example.bidbackend.dto.CursorPage;
+import com.example.bidbackend.dto.ProxyBidRequest;
+import com.example.bidbackend.dto.ProxyBidResponse;
 import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.exception.BidRejectedException;
 import com.example.bidbackend.model.Bid;
-import com.example.bidbackend.model.Product;
 import com.example.bidbackend.repository.BidRepository;
-import com.example.bidbackend.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Service
 public class BidService {
-	private final ProductRepository productRepository;
+	private final AuctionBook auctionBook;
 	private final BidRepository bidRepository;
+	private final AppProperties appProperties;
+	private final Counter accepted;
+	private final Map<BidRejectedException.Reason, Counter> rejected = new EnumMap<>(BidRejectedException.Reason.class);
 
-	public BidService(ProductRepository productRepository, BidRepository bidRepository) {
-		this.productRepository = productRepository;
+	public BidService(
+			AuctionBook auctionBook,
+			BidRepository bidRepository,
+			AppProperties appProperties,
+			MeterRegistry meterRegistry
+	) {
+		this.auctionBook = auctionBook;
 		this.bidRepository = bidRepository;
+		this.appProperties = appProperties;
+		this.accepted = Counter.builder("bids.accepted").description("Bids accepted by the auction book").register(meterRegistry);
+		for (BidRejectedException.Reason reason : BidRejectedException.Reason.values()) {
+			rejected.put(reason, Counter.builder("bids.rejected")
+					.description("Bids turned down by the auction book")
+					.tag("reason", reason.name().toLowerCase(Locale.ROOT))
+					.register(meterRegistry));
+		}
 	}
 
-	@Transactional
-	public Bid placeBid(Long productId, BidRequest request) {
+	// NOTE: acceptance is decided by the in-memory auction book; the bid row is written behind.
+	public BidResponse placeBid(Long productId, BidRequest request) {
 		if (request == null || request.getAmount() == null) {
 			throw new ApiException(HttpStatus.BAD_REQUEST, "Bid amount is required");
 		}
-		Product product = productRepository.findById(productId)
-				.orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, "Product not found"));
-
-		if (LocalDateTime.now().isAfter(product.getEndTime())) {
-			throw new ApiException(HttpStatus.BAD_REQUEST, "Sale time is over. Bidding is closed.");
+		requireStorable(request.getAmount(), "Bid amount");
+		try {
+			BidResponse bid = auctionBook.accept(productId, request.getAmount(), request.getBidderName());
+			accepted.increment();
+			return bid;
+		} catch (BidRejectedException e) {
+			rejected.get(e.getReason()).increment();
+			throw e;
 		}
+	}
 
-		BigDecimal current = bidRepository.findTopByProductIdOrderByAmountDescCreatedAtDesc(productId)
-				.map(Bid::getAmount)
-				.orElse(product.getStartingPrice());
-
-		if (request.getAmount().compareTo(current) <= 0) {
-			throw new ApiException(HttpStatus.BAD_REQUEST, "Bid must be greater than current price");
+	public ProxyBidResponse registerProxy(Long productId, ProxyBidRequest request) {
+		if (request == null || request.getMaxAmount() == null) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Maximum amount is required");
+		}
+		requireStorable(request.getMaxAmount(), "Maximum amount");
+		if (request.getBidderName() == null || request.getBidderName().isBlank()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "bidderName is required");
 		}
+		return auctionBook.registerProxy(productId, request.getBidderName().trim(), request.getMaxAmount());
+	}
 
-		Bid bid = new Bid();
-		bid.setProduct(product);
-		bid.setAmount(request.getAmount());
-		bid.setBidderName(request.getBidderName());
-		return bidRepository.save(bid);
+	// amounts must fit the numeric(19, 2) columns and the bid log, which stores them as an unscaled long
+	private static void requireStorable(BigDecimal amount, String name) {
+		BigDecimal stripped = amount.stripTrailingZeros();
+		if (stripped.scale() > 2) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, name + " can have at most 2 decimal places");
+		}
+		if (stripped.precision() - stripped.scale() > 17
+				|| stripped.setScale(Math.max(stripped.scale(), 0)).unscaledValue().bitLength() > 63) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, name + " is too large");
+		}
 	}
 
 	@Transactional(readOnly = true)
-	public List<Bid> listBids(Long productId) {
-		return bidRepository.findByProductIdOrderByAmountDescCreatedAtDesc(productId);
+	public CursorPage<Bid> listBids(Long productId, String cursor, Integer limit) {
+		int pageSize = appProperties.paging().resolve(limit);
+		Limit fetch = Limit.of(pageSize + 1);
+		List<Bid> rows;
+		if (cursor == null || cursor.isBlank()) {
+			rows = bidRepository.findPage(productId, fetch);
+		} else {
+			String[] parts = CursorCodec.decode(cursor, 3);
+			try {
+				rows = bidRepository.findPageAfter(
+						productId,
+						new BigDecimal(parts[0]),
+						LocalDateTime.parse(parts[1]),
+						Long.valueOf(parts[2]),
+						fetch
+				);
+			} catch (NumberFormatException | DateTimeParseException e) {
+				throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+			}
+		}
+		if (rows.size() <= pageSize) {
+			return new CursorPage<>(rows, null);
+		}
+		List<Bid> page = rows.subList(0, pageSize);
+		Bid last = page.get(pageSize - 1);
+		return new CursorPage<>(page, CursorCodec.encode(last.getAmount().toPlainString(), last.getCreatedAt(), last.getId()));
 	}
 }
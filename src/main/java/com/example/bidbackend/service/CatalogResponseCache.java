@@ -0,0 +1,160 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.CursorPage;
+import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.event.AuctionEvent;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-rendered JSON bodies for the catalog listings.
+ *
+ * <p>Entries are keyed by the request and the catalog version, which moves on every product change
+ * and every auction event. A page is serialized once per version; repeated requests are answered with
+ * the stored bytes (or their gzip variant) and a strong ETag derived from them, so a matching
+ * {@code If-None-Match} costs no mapping or serialization at all. Pages of older versions are never
+ * read again and simply age out.
+ */
+@Component
+public class CatalogResponseCache implements MeterBinder {
+	private final ObjectMapper objectMapper;
+	private final AtomicLong version = new AtomicLong();
+	private final Cache<String, RenderedPage> cache;
+
+	public CatalogResponseCache(ObjectMapper objectMapper, AppProperties appProperties) {
+		this.objectMapper = objectMapper;
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(appProperties.catalogCache().maxSize().toBytes())
+				.<String, RenderedPage>weigher((key, page) -> key.length() + page.json().length)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Builds the cache key for one listing request from its normalized parameters.
+	 */
+	public static String key(String listing, Object... params) {
+		return listing + Arrays.stream(params)
+				.map(p -> p == null ? "" : p.toString().trim())
+				.collect(Collectors.joining("|", "?", ""));
+	}
+
+	public RenderedPage get(String key, Supplier<CursorPage<ProductResponse>> loader) {
+		// read the version before the data, so a change during rendering leaves this entry unreachable
+		long current = version.get();
+		return cache.get(current + ":" + key, k -> render(loader.get()));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "catalog");
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	@EventListener
+	public void onAuctionEvent(AuctionEvent event) {
+		version.incrementAndGet();
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		version.incrementAndGet();
+	}
+
+	private RenderedPage render(CursorPage<ProductResponse> page) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(page.items());
+			return new RenderedPage(json, etag(json), page.nextCursor());
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize catalog page", e);
+		}
+	}
+
+	private static String etag(byte[] json) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * A serialized page; the gzip variant is compressed on first use.
+	 */
+	public static final class RenderedPage {
+		private final byte[] json;
+		private final String etag;
+		private final String nextCursor;
+		private volatile byte[] gzip;
+
+		private RenderedPage(byte[] json, String etag, String nextCursor) {
+			this.json = json;
+			this.etag = etag;
+			this.nextCursor = nextCursor;
+		}
+
+		public byte[] json() {
+			return json;
+		}
+
+		public String etag() {
+			return '"' + etag + '"';
+		}
+
+		// a different representation needs its own strong validator
+		public String gzipEtag() {
+			return '"' + etag + "-gzip" + '"';
+		}
+
+		public String nextCursor() {
+			return nextCursor;
+		}
+
+		public byte[] gzip() {
+			byte[] compressed = gzip;
+			if (compressed == null) {
+				// racing threads produce identical bytes, so losing the race is harmless
+				ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+				try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+					zip.write(json);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				compressed = out.toByteArray();
+				gzip = compressed;
+			}
+			return compressed;
+		}
+	}
+}
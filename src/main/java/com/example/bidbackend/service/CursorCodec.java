@@ -0,0 +1,41 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Opaque keyset cursors: the sort key of the last row of a page, joined and base64url-encoded.
+ */
+public class CursorCodec {
+	private static final String SEPARATOR = "|";
+
+	private CursorCodec() {}
+
+	public static String encode(Object... parts) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) {
+				sb.append(SEPARATOR);
+			}
+			sb.append(parts[i]);
+		}
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String[] decode(String cursor, int expectedParts) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = raw.split(Pattern.quote(SEPARATOR), -1);
+			if (parts.length == expectedParts) {
+				return parts;
+			}
+		} catch (IllegalArgumentException ignored) {
+			// fall through to the error below
+		}
+		throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.exception.ApiException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Responses of non-idempotent requests by {@code Idempotency-Key}, so a client that retries after a
+ * timeout gets the original response instead of a second bid or listing.
+ *
+ * <p>The first request with a key claims it with a pending future and runs; retries that arrive while it
+ * runs wait on that future, and later ones are answered from the stored JSON. A failed request releases
+ * its key, so a retry runs again. Keys are scoped by the caller (endpoint and target), and reusing a key
+ * for a different request is rejected. Entries expire after {@code app.idempotency.ttl} and are weighed
+ * by their JSON size against {@code app.idempotency.max-size}.
+ */
+@Component
+public class IdempotencyCache implements MeterBinder {
+	// key, fingerprint and future bookkeeping of one entry
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private final ObjectMapper objectMapper;
+	private final AppProperties.Idempotency config;
+	private final Cache<String, Entry> cache;
+
+	public IdempotencyCache(ObjectMapper objectMapper, AppProperties appProperties) {
+		this.objectMapper = objectMapper;
+		this.config = appProperties.idempotency();
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(config.maxSize().toBytes())
+				.<String, Entry>weigher((key, entry) -> key.length() + entry.weight())
+				.expireAfterWrite(config.ttl())
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * The JSON response of a request and whether it was replayed from an earlier one.
+	 */
+	public record Result(byte[] json, boolean replayed) {}
+
+	/**
+	 * Runs {@code action} once per {@code scope} and {@code key} and returns its response as JSON.
+	 * {@code fingerprint} describes the request, so that a key reused for a different one is caught.
+	 */
+	public Result execute(String scope, String key, String fingerprint, Supplier<?> action) {
+		if (key.isBlank() || key.length() > config.maxKeyLength()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST,
+					"Idempotency-Key must be 1 to " + config.maxKeyLength() + " characters");
+		}
+		String cacheKey = scope + "|" + key;
+		Entry pending = new Entry(fingerprint, new CompletableFuture<>());
+		Entry existing = cache.asMap().putIfAbsent(cacheKey, pending);
+		if (existing != null) {
+			if (!existing.fingerprint().equals(fingerprint)) {
+				throw new ApiException(HttpStatus.UNPROCESSABLE_ENTITY,
+						"Idempotency-Key was already used for a different request");
+			}
+			return new Result(await(existing.response()), true);
+		}
+
+		byte[] json;
+		try {
+			json = render(action.get());
+		} catch (RuntimeException e) {
+			cache.asMap().remove(cacheKey, pending);
+			pending.response().completeExceptionally(e);
+			throw e;
+		}
+		pending.response().complete(json);
+		// a new entry instance makes the cache weigh the stored response
+		cache.asMap().replace(cacheKey, pending, new Entry(fingerprint, pending.response()));
+		return new Result(json, false);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "idempotency");
+	}
+
+	private byte[] render(Object response) {
+		try {
+			return objectMapper.writeValueAsBytes(response);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Cannot serialize response", e);
+		}
+	}
+
+	private static byte[] await(CompletableFuture<byte[]> response) {
+		try {
+			return response.join();
+		} catch (CompletionException e) {
+			// the original request failed; its waiters fail the same way
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private record Entry(String fingerprint, CompletableFuture<byte[]> response) {
+		private int weight() {
+			byte[] json = response.getNow(null);
+			return ENTRY_OVERHEAD + fingerprint.length() + (json != null ? json.length : 0);
+		}
+	}
+}
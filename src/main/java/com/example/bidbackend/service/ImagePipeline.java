@@ -0,0 +1,200 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders the {@link ImageVariant}s of uploaded images on a small bounded pool, off the request thread.
+ *
+ * <p>Until a variant exists the uploads handler serves the original in its place, so a full queue only
+ * costs bandwidth: the job is dropped rather than blocking the upload.
+ */
+@Component
+public class ImagePipeline {
+	private static final Logger log = LoggerFactory.getLogger(ImagePipeline.class);
+	private static final long DROP_WARNING_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+	private final BlobStore blobStore;
+	private final AppProperties.Images config;
+	private final ThreadPoolExecutor workers;
+	private final Timer renderTime;
+	private final Counter dropped;
+	// drops since the last warning, and when the next warning may be logged
+	private final AtomicLong unreportedDrops = new AtomicLong();
+	private final AtomicLong nextDropWarning = new AtomicLong(System.nanoTime());
+
+	public ImagePipeline(BlobStore blobStore, WorkerThreads workerThreads, AppProperties appProperties, MeterRegistry meterRegistry) {
+		this.blobStore = blobStore;
+		this.config = appProperties.images();
+		this.renderTime = Timer.builder("images.render")
+				.description("Time to render the variants of one upload")
+				.register(meterRegistry);
+		this.dropped = Counter.builder("images.dropped")
+				.description("Uploads whose variants were skipped because the queue was full")
+				.register(meterRegistry);
+		// decoding and resizing hold the CPU for far longer than the blob store reads and writes around them
+		// take, so the workers stay on platform threads rather than holding carriers shared with requests
+		this.workers = new ThreadPoolExecutor(
+				config.workerThreads(),
+				config.workerThreads(),
+				0,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(config.queueCapacity()),
+				workerThreads.platform("image-pipeline-"),
+				(job, pool) -> onDropped()
+		);
+		Gauge.builder("images.queue", workers, pool -> pool.getQueue().size())
+				.description("Uploads waiting for their variants")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Queues variant rendering for a stored original; variants that already exist are kept.
+	 */
+	public void submit(String filename) {
+		workers.execute(() -> render(filename));
+	}
+
+	// a full queue rejects uploads in bursts; the counter has every drop, the log a summary per interval
+	private void onDropped() {
+		dropped.increment();
+		unreportedDrops.incrementAndGet();
+		long now = System.nanoTime();
+		long next = nextDropWarning.get();
+		if (now - next >= 0 && nextDropWarning.compareAndSet(next, now + DROP_WARNING_INTERVAL)) {
+			log.warn("Image pipeline queue is full; {} uploads dropped since the last warning are served from their originals",
+					unreportedDrops.getAndSet(0));
+		}
+	}
+
+	@PreDestroy
+	void shutdown() {
+		workers.shutdownNow();
+	}
+
+	private void render(String filename) {
+		long started = System.nanoTime();
+		try {
+			BufferedImage source = null;
+			for (ImageVariant variant : ImageVariant.values()) {
+				String target = variant.filename(filename);
+				if (blobStore.stat(target) != null) {
+					continue;
+				}
+				if (source == null) {
+					source = decode(filename);
+					if (source == null) {
+						return;
+					}
+				}
+				write(resize(source, maxEdge(variant)), target, formatOf(filename));
+			}
+			if (source != null) {
+				renderTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+			}
+		} catch (IOException | RuntimeException e) {
+			log.warn("Failed to render variants of {}: {}", filename, e.getMessage());
+		}
+	}
+
+	/**
+	 * Decodes an original for resizing, or returns null when it cannot or should not be. The header is
+	 * read first: images above {@code app.images.max-pixels} are refused before any pixel memory is
+	 * allocated, and large ones are subsampled while decoding to about twice the largest variant,
+	 * which is all the resize steps need.
+	 */
+	private BufferedImage decode(String filename) throws IOException {
+		try (InputStream in = blobStore.open(filename);
+			 ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+			Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+			if (readers == null || !readers.hasNext()) {
+				log.warn("Cannot decode image {}; no variants rendered", filename);
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(stream, true, true);
+				int width = reader.getWidth(0);
+				int height = reader.getHeight(0);
+				if ((long) width * height > config.maxPixels()) {
+					log.warn("Image {} is {}x{} pixels, over the decode budget; no variants rendered", filename, width, height);
+					return null;
+				}
+				ImageReadParam param = reader.getDefaultReadParam();
+				int subsampling = Math.max(1, Math.max(width, height) / (2 * Math.max(config.thumbnailSize(), config.mediumSize())));
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				return reader.read(0, param);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	private int maxEdge(ImageVariant variant) {
+		return switch (variant) {
+			case THUMB -> config.thumbnailSize();
+			case MEDIUM -> config.mediumSize();
+		};
+	}
+
+	// halves the image step by step before the final bilinear pass, which keeps downscaling sharp
+	private static BufferedImage resize(BufferedImage source, int maxEdge) {
+		int width = source.getWidth();
+		int height = source.getHeight();
+		double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+		int targetWidth = Math.max(1, (int) Math.round(width * scale));
+		int targetHeight = Math.max(1, (int) Math.round(height * scale));
+		int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+		BufferedImage current = source;
+		do {
+			width = Math.max(targetWidth, width / 2);
+			height = Math.max(targetHeight, height / 2);
+			BufferedImage step = new BufferedImage(width, height, type);
+			Graphics2D g = step.createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(current, 0, 0, width, height, null);
+			g.dispose();
+			current = step;
+		} while (width != targetWidth || height != targetHeight);
+		return current;
+	}
+
+	private void write(BufferedImage image, String target, String format) throws IOException {
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(64 * 1024);
+		if (!ImageIO.write(image, format, encoded)) {
+			throw new IOException("No writer for " + format);
+		}
+		blobStore.putDerived(target, encoded.toByteArray());
+	}
+
+	private static String formatOf(String filename) {
+		return filename.toLowerCase(Locale.ROOT).endsWith(".png") ? "png" : "jpg";
+	}
+}
@@ -0,0 +1,207 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.dto.ImageUsage;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.storage.BlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts how many products point at each stored image and deletes images nobody points at.
+ *
+ * <p>Identical uploads share one blob, so a blob can only go once the last product using it has let go.
+ * Counts are rebuilt from the database at startup and follow committed product changes. A blob whose
+ * count drops to zero, or that was stored by an upload whose transaction never committed, becomes a
+ * candidate; the collector deletes it together with its variants once it has been unreferenced for the
+ * grace period and the database confirms that no product uses it. Right after startup the collector
+ * also walks the store once to pick up blobs left behind by earlier runs.
+ */
+@Component
+public class ImageReferences implements SmartLifecycle {
+	private static final Logger log = LoggerFactory.getLogger(ImageReferences.class);
+
+	private final BlobStore blobStore;
+	private final ProductRepository productRepository;
+	private final UploadFileCache uploadFileCache;
+	private final WorkerThreads workerThreads;
+	private final AppProperties.Storage config;
+	private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+	// candidate key -> when it was last seen unreferenced (epoch millis)
+	private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+
+	private ScheduledExecutorService collector;
+	private volatile boolean running;
+	private volatile boolean swept;
+
+	public ImageReferences(
+			BlobStore blobStore,
+			ProductRepository productRepository,
+			UploadFileCache uploadFileCache,
+			WorkerThreads workerThreads,
+			AppProperties appProperties
+	) {
+		this.blobStore = blobStore;
+		this.productRepository = productRepository;
+		this.uploadFileCache = uploadFileCache;
+		this.workerThreads = workerThreads;
+		this.config = appProperties.storage();
+	}
+
+	@Override
+	public void start() {
+		List<ImageUsage> usages = productRepository.findImageUsages();
+		for (ImageUsage usage : usages) {
+			counts.put(usage.imageFilename(), new AtomicInteger(usage.products().intValue()));
+		}
+		log.info("Tracking {} referenced images", usages.size());
+		running = true;
+		if (config.gcEnabled()) {
+			collector = Executors.newSingleThreadScheduledExecutor(workerThreads.factory("blob-gc-"));
+			long period = config.gcInterval().toMillis();
+			collector.scheduleWithFixedDelay(this::collect, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+		if (collector != null) {
+			collector.shutdownNow();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Called for every stored upload. Until a committed product points at it, the blob is a candidate,
+	 * and storing the same content again restarts its grace period.
+	 */
+	public void track(String key) {
+		candidates.compute(key, (k, since) -> referenced(k) ? null : System.currentTimeMillis());
+	}
+
+	public int count(String key) {
+		AtomicInteger count = counts.get(key);
+		return count != null ? count.get() : 0;
+	}
+
+	public int candidateCount() {
+		return candidates.size();
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		String image = event.product().getImageFilename();
+		switch (event.type()) {
+			case CREATED -> retain(image);
+			case UPDATED -> {
+				if (event.previousImageFilename() != null && !event.previousImageFilename().equals(image)) {
+					retain(image);
+					release(event.previousImageFilename());
+				}
+			}
+			case DELETED -> release(image);
+		}
+	}
+
+	private void retain(String key) {
+		if (key == null) {
+			return;
+		}
+		counts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+		candidates.remove(key);
+	}
+
+	private void release(String key) {
+		if (key == null) {
+			return;
+		}
+		AtomicInteger count = counts.get(key);
+		if (count == null || count.decrementAndGet() <= 0) {
+			counts.remove(key);
+			track(key);
+		}
+	}
+
+	private boolean referenced(String key) {
+		return count(key) > 0;
+	}
+
+	private void collect() {
+		try {
+			if (!swept) {
+				sweep();
+				swept = true;
+			}
+			long cutoff = System.currentTimeMillis() - config.gcGrace().toMillis();
+			for (String key : List.copyOf(candidates.keySet())) {
+				// track() on the same key waits for this, so a concurrent re-upload either keeps the blob or re-stores it
+				candidates.computeIfPresent(key, (k, since) -> {
+					if (referenced(k)) {
+						return null;
+					}
+					if (since > cutoff) {
+						return since;
+					}
+					if (productRepository.existsByImageFilename(k)) {
+						// the counts missed a change; trust the database
+						counts.computeIfAbsent(k, x -> new AtomicInteger()).incrementAndGet();
+						return null;
+					}
+					delete(k);
+					return null;
+				});
+			}
+		} catch (RuntimeException | IOException e) {
+			log.warn("Blob collection failed: {}", e.getMessage());
+		}
+	}
+
+	// marks every unreferenced original in the store; variants are deleted together with their original
+	private void sweep() throws IOException {
+		long now = System.currentTimeMillis();
+		blobStore.forEachKey(key -> {
+			String original = ImageVariant.originalOf(key);
+			String candidate = original != null ? original : key;
+			if (!referenced(candidate)) {
+				candidates.putIfAbsent(candidate, now);
+			}
+		});
+		log.info("Blob sweep found {} unreferenced images", candidates.size());
+	}
+
+	private void delete(String key) {
+		deleteQuietly(key);
+		for (ImageVariant variant : ImageVariant.values()) {
+			deleteQuietly(variant.filename(key));
+		}
+		log.debug("Deleted unreferenced image {}", key);
+	}
+
+	private void deleteQuietly(String key) {
+		try {
+			blobStore.delete(key);
+		} catch (IOException | IllegalArgumentException e) {
+			log.warn("Could not delete blob {}: {}", key, e.getMessage());
+		}
+		uploadFileCache.invalidate(key);
+	}
+}
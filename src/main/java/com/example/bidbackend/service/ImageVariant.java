@@ -0,0 +1,43 @@
+package com.example.bidbackend.service;
+
+/**
+ * Resized copies of an uploaded image. A variant lives next to its original as
+ * {@code <name>-<suffix><ext>}, so its URL can be derived without a lookup.
+ */
+public enum ImageVariant {
+	THUMB("thumb"),
+	MEDIUM("medium");
+
+	private final String suffix;
+
+	ImageVariant(String suffix) {
+		this.suffix = suffix;
+	}
+
+	public String filename(String original) {
+		if (original == null || original.isBlank()) {
+			return null;
+		}
+		int dot = original.lastIndexOf('.');
+		if (dot < 0) {
+			return original + "-" + suffix;
+		}
+		return original.substring(0, dot) + "-" + suffix + original.substring(dot);
+	}
+
+	/**
+	 * Returns the original a variant file name was derived from, or null if it is not a variant name.
+	 */
+	public static String originalOf(String filename) {
+		int dot = filename.lastIndexOf('.');
+		String base = dot < 0 ? filename : filename.substring(0, dot);
+		String extension = dot < 0 ? "" : filename.substring(dot);
+		for (ImageVariant variant : values()) {
+			String marker = "-" + variant.suffix;
+			if (base.endsWith(marker)) {
+				return base.substring(0, base.length() - marker.length()) + extension;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-through cache for product detail responses.
+ *
+ * <p>Only the listing part of a response is cached. Price, deadline and status are overlaid from the
+ * auction book on every read, so bids never have to touch the cache and a read after a bid always sees
+ * its price. Seller edits and deletes invalidate the entry once their transaction has committed.
+ */
+@Component
+public class ProductDetailCache implements MeterBinder {
+	private final ProductService productService;
+	private final AuctionBook auctionBook;
+	private final AppProperties appProperties;
+	private final Cache<Long, ProductResponse> cache;
+
+	public ProductDetailCache(ProductService productService, AuctionBook auctionBook, AppProperties appProperties) {
+		this.productService = productService;
+		this.auctionBook = auctionBook;
+		this.appProperties = appProperties;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(appProperties.productCache().maximumSize())
+				.expireAfterWrite(appProperties.productCache().ttl())
+				.recordStats()
+				.build();
+	}
+
+	public ProductResponse get(Long id) {
+		AuctionSnapshot auction = auctionBook.get(id);
+		if (auction == null) {
+			// not in the book: deleted, or being deleted; let the database answer
+			cache.invalidate(id);
+			return ProductMapper.toResponse(productService.getById(id), appProperties);
+		}
+		ProductResponse listing = cache.get(id, this::load);
+		return ProductMapper.withAuction(listing, auction);
+	}
+
+	/**
+	 * Responses for several products in the given order, loading every missing listing in one query.
+	 * Products that are gone are left out.
+	 */
+	public List<ProductResponse> getAll(List<Long> ids) {
+		Map<Long, ProductResponse> listings = cache.getAll(ids, this::loadAll);
+		List<ProductResponse> responses = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			AuctionSnapshot auction = auctionBook.get(id);
+			ProductResponse listing = listings.get(id);
+			if (auction != null && listing != null) {
+				responses.add(ProductMapper.withAuction(listing, auction));
+			}
+		}
+		return responses;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "product-detail");
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	@TransactionalEventListener
+	public void onProductChanged(ProductChangedEvent event) {
+		if (event.type() != ProductChangedEvent.Type.CREATED) {
+			// a load racing with this waits for it, so the entry cannot come back stale
+			cache.invalidate(event.productId());
+		}
+	}
+
+	private ProductResponse load(Long id) {
+		return ProductMapper.toResponse(productService.getById(id), auctionBook.get(id), appProperties);
+	}
+
+	private Map<Long, ProductResponse> loadAll(Set<? extends Long> ids) {
+		Map<Long, ProductResponse> listings = new HashMap<>();
+		for (Product product : productService.getAllById(List.copyOf(ids))) {
+			listings.put(product.getId(), ProductMapper.toResponse(product, auctionBook.get(product.getId()), appProperties));
+		}
+		return listings;
+	}
+}
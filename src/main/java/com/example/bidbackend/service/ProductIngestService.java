@@ -0,0 +1,256 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.config.WorkerThreads;
+import com.example.bidbackend.dto.BulkIngestResponse;
+import com.example.bidbackend.dto.ProductManifestRow;
+import com.example.bidbackend.dto.ProductUpsertForm;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Creates many listings from one manifest and one zip archive of their images.
+ *
+ * <p>The archive is read first, as a stream: each entry is stored through {@link UploadsService} on a
+ * small pool while the next one is read, with at most a few entries in memory at a time. The manifest
+ * is then streamed row by row; every row goes through the same rules as a single create and is
+ * inserted in batches of {@code app.bulk-ingest.batch-size}, one transaction per batch, flushed and
+ * cleared so the persistence context stays small. A bad row fails on its own; a batch that fails to
+ * commit fails its rows. Images no created listing points at are collected like any other unused upload.
+ */
+@Service
+public class ProductIngestService {
+	private static final Logger log = LoggerFactory.getLogger(ProductIngestService.class);
+
+	private final UploadsService uploadsService;
+	private final ApplicationEventPublisher events;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate transactionTemplate;
+	private final AppProperties.BulkIngest config;
+	private final ExecutorService imageWorkers;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public ProductIngestService(
+			UploadsService uploadsService,
+			ApplicationEventPublisher events,
+			ObjectMapper objectMapper,
+			PlatformTransactionManager transactionManager,
+			WorkerThreads workerThreads,
+			AppProperties appProperties
+	) {
+		this.uploadsService = uploadsService;
+		this.events = events;
+		this.objectMapper = objectMapper;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.config = appProperties.bulkIngest();
+		this.imageWorkers = Executors.newFixedThreadPool(config.imageThreads(), workerThreads.factory("bulk-images-"));
+	}
+
+	@PreDestroy
+	void shutdown() {
+		imageWorkers.shutdownNow();
+	}
+
+	public BulkIngestResponse ingest(MultipartFile manifest, MultipartFile images, String format) {
+		if (manifest == null || manifest.isEmpty()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "manifest is required");
+		}
+		if (images == null || images.isEmpty()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "images archive is required");
+		}
+		ProductManifest.Format manifestFormat = ProductManifest.Format.of(format, manifest.getOriginalFilename());
+		Map<String, CompletableFuture<String>> stored = storeImages(images);
+
+		List<BulkIngestResponse.RowResult> results = new ArrayList<>();
+		List<Pending> batch = new ArrayList<>(config.batchSize());
+		try (InputStream in = manifest.getInputStream();
+			 ProductManifest rows = ProductManifest.open(in, manifestFormat, objectMapper)) {
+			for (ProductManifest.Line line = rows.next(); line != null; line = rows.next()) {
+				if (line.number() > config.maxRows()) {
+					results.add(new BulkIngestResponse.RowResult(line.number(), null,
+							"Not processed: a manifest holds at most " + config.maxRows() + " rows"));
+					break;
+				}
+				if (line.error() != null) {
+					results.add(new BulkIngestResponse.RowResult(line.number(), null, line.error()));
+					continue;
+				}
+				try {
+					batch.add(new Pending(line.number(), toProduct(line.row(), stored)));
+				} catch (ApiException e) {
+					results.add(new BulkIngestResponse.RowResult(line.number(), null, e.getMessage()));
+				}
+				if (batch.size() >= config.batchSize()) {
+					insert(batch, results);
+				}
+			}
+			insert(batch, results);
+		} catch (IOException e) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Cannot read manifest");
+		}
+
+		int created = 0;
+		for (BulkIngestResponse.RowResult result : results) {
+			if (result.id() != null) {
+				created++;
+			}
+		}
+		// rows are added as they fail but only once their batch commits, so restore manifest order
+		results.sort((a, b) -> Integer.compare(a.row(), b.row()));
+		return new BulkIngestResponse(created, results.size() - created, results);
+	}
+
+	private record Pending(int row, Product product) {}
+
+	/**
+	 * Stores every archive entry and returns the future key of each by entry name. Entries are read one
+	 * after the other; the permits bound how many read but not yet stored ones are held in memory.
+	 */
+	private Map<String, CompletableFuture<String>> storeImages(MultipartFile images) {
+		Map<String, CompletableFuture<String>> stored = new HashMap<>();
+		Semaphore inFlight = new Semaphore(config.imageThreads() * 2);
+		long maxSize = uploadsService.maxImageSize();
+		try (ZipInputStream zip = new ZipInputStream(images.getInputStream())) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				String name = entry.getName();
+				if (entry.isDirectory() || name.startsWith("__MACOSX/")) {
+					continue;
+				}
+				byte[] content = readEntry(zip, maxSize);
+				if (content == null) {
+					stored.put(name, CompletableFuture.failedFuture(new ApiException(HttpStatus.PAYLOAD_TOO_LARGE,
+							"Image " + name + " is larger than " + maxSize / (1024 * 1024) + "MB")));
+					continue;
+				}
+				inFlight.acquireUninterruptibly();
+				stored.put(name, CompletableFuture.supplyAsync(() -> {
+					try {
+						return uploadsService.saveImage(name, content);
+					} finally {
+						inFlight.release();
+					}
+				}, imageWorkers));
+			}
+		} catch (IOException e) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "images must be a zip archive");
+		}
+		return stored;
+	}
+
+	// null when the entry is over the limit; only that much of it is ever buffered
+	private static byte[] readEntry(ZipInputStream zip, long maxSize) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[64 * 1024];
+		long total = 0;
+		for (int n = zip.read(buffer); n >= 0; n = zip.read(buffer)) {
+			total += n;
+			if (total > maxSize) {
+				return null;
+			}
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+	private static Product toProduct(ProductManifestRow row, Map<String, CompletableFuture<String>> stored) {
+		ProductUpsertForm form = new ProductUpsertForm();
+		form.setSellerName(row.sellerName());
+		form.setName(row.name());
+		form.setDescription(row.description());
+		form.setStartingPrice(parse(row.startingPrice(), "startingPrice", BigDecimal::new));
+		form.setEndTime(parse(row.endTime(), "endTime", LocalDateTime::parse));
+		form.setSoftCloseWindowSeconds(parse(row.softCloseWindowSeconds(), "softCloseWindowSeconds", Integer::valueOf));
+		form.setSoftCloseExtensionSeconds(parse(row.softCloseExtensionSeconds(), "softCloseExtensionSeconds", Integer::valueOf));
+		ProductService.validateListing(form, true);
+
+		if (row.image() == null || row.image().isBlank()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Image is required");
+		}
+		CompletableFuture<String> image = stored.get(row.image().trim());
+		if (image == null) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Image " + row.image().trim() + " is not in the archive");
+		}
+		try {
+			return ProductService.newProduct(form, image.join());
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof ApiException cause) {
+				throw cause;
+			}
+			throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save image " + row.image().trim());
+		}
+	}
+
+	private static <T> T parse(String value, String field, Function<String, T> parser) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+		try {
+			return parser.apply(value.trim());
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, field + " is not valid: " + value.trim());
+		}
+	}
+
+	private void insert(List<Pending> batch, List<BulkIngestResponse.RowResult> results) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				for (Pending pending : batch) {
+					entityManager.persist(pending.product());
+					// delivered after commit, so the auction book, index and caches only see committed listings
+					events.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, pending.product()));
+				}
+				entityManager.flush();
+				entityManager.clear();
+			});
+			for (Pending pending : batch) {
+				results.add(new BulkIngestResponse.RowResult(pending.row(), pending.product().getId(), null));
+			}
+		} catch (DataAccessException | PersistenceException | TransactionException e) {
+			log.warn("Bulk ingest batch of {} rows failed: {}", batch.size(), e.getMessage());
+			for (Pending pending : batch) {
+				results.add(new BulkIngestResponse.RowResult(pending.row(), null, "Could not be saved"));
+			}
+		}
+		batch.clear();
+	}
+}
@@ -0,0 +1,183 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.dto.ProductManifestRow;
+import com.example.bidbackend.exception.ApiException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads a bulk ingest manifest one row at a time, as JSON Lines or as CSV with a header row naming the
+ * {@link ProductManifestRow} fields. A row that cannot be parsed comes back with an error instead of
+ * ending the manifest.
+ */
+final class ProductManifest implements Closeable {
+	private static final int BUFFER_CHARS = 64 * 1024;
+
+	private final BufferedReader reader;
+	private final Format format;
+	private final ObjectMapper objectMapper;
+	private int[] columns;
+	private int rows;
+
+	private ProductManifest(InputStream in, Format format, ObjectMapper objectMapper) {
+		this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_CHARS);
+		this.format = format;
+		this.objectMapper = objectMapper;
+	}
+
+	enum Format {
+		JSONL,
+		CSV;
+
+		/**
+		 * The requested format, or the one the manifest's file name suggests.
+		 */
+		static Format of(String format, String filename) {
+			if (format == null || format.isBlank()) {
+				return filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : JSONL;
+			}
+			return switch (format.trim().toLowerCase(Locale.ROOT)) {
+				case "jsonl", "ndjson" -> JSONL;
+				case "csv" -> CSV;
+				default -> throw new ApiException(HttpStatus.BAD_REQUEST, "format must be jsonl or csv");
+			};
+		}
+	}
+
+	/**
+	 * A manifest row with its number, or the reason it could not be read.
+	 */
+	record Line(int number, ProductManifestRow row, String error) {}
+
+	static ProductManifest open(InputStream in, Format format, ObjectMapper objectMapper) {
+		return new ProductManifest(in, format, objectMapper);
+	}
+
+	/**
+	 * The next row, or null at the end of the manifest.
+	 */
+	Line next() throws IOException {
+		return format == Format.CSV ? nextCsv() : nextJson();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private Line nextJson() throws IOException {
+		String line;
+		do {
+			line = reader.readLine();
+			if (line == null) {
+				return null;
+			}
+		} while (line.isBlank());
+		int number = ++rows;
+		try {
+			return new Line(number, objectMapper.readValue(line, ProductManifestRow.class), null);
+		} catch (JsonProcessingException e) {
+			return new Line(number, null, "Not a JSON object: " + e.getOriginalMessage());
+		}
+	}
+
+	private Line nextCsv() throws IOException {
+		if (columns == null) {
+			List<String> header = readRecord();
+			if (header == null) {
+				return null;
+			}
+			columns = headerColumns(header);
+		}
+		List<String> record;
+		do {
+			record = readRecord();
+			if (record == null) {
+				return null;
+			}
+		} while (record.size() == 1 && record.get(0).isBlank());
+		return new Line(++rows, new ProductManifestRow(
+				field(record, 0),
+				field(record, 1),
+				field(record, 2),
+				field(record, 3),
+				field(record, 4),
+				field(record, 5),
+				field(record, 6),
+				field(record, 7)
+		), null);
+	}
+
+	// position of each ProductManifestRow component in the CSV records, -1 when the column is missing
+	private static int[] headerColumns(List<String> header) {
+		String[] names = {
+				"sellername", "name", "description", "startingprice", "endtime",
+				"softclosewindowseconds", "softcloseextensionseconds", "image"
+		};
+		int[] positions = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			positions[i] = -1;
+			for (int column = 0; column < header.size(); column++) {
+				// spreadsheets like to start the file with a byte order mark
+				if (header.get(column).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).equals(names[i])) {
+					positions[i] = column;
+				}
+			}
+		}
+		return positions;
+	}
+
+	private String field(List<String> record, int component) {
+		int column = columns[component];
+		return column >= 0 && column < record.size() ? record.get(column) : null;
+	}
+
+	// RFC 4180: quoted fields may hold commas, doubled quotes and line breaks
+	private List<String> readRecord() throws IOException {
+		int c = reader.read();
+		if (c < 0) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		while (c >= 0) {
+			if (quoted) {
+				if (c == '"') {
+					reader.mark(1);
+					if (reader.read() == '"') {
+						field.append('"');
+					} else {
+						reader.reset();
+						quoted = false;
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.isEmpty()) {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\n') {
+				break;
+			} else if (c != '\r') {
+				field.append((char) c);
+			}
+			c = reader.read();
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
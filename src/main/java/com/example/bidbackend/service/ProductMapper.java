@@ -1,7 +1,9 @@
 package com.example.bidbackend.service;
 
+import com.example.bidbackend.auction.AuctionSnapshot;
 import com.example.bidbackend.config.AppProperties;
 import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.dto.ProductSummary;
 import com.example.bidbackend.model.Bid;
 import com.example.bidbackend.model.Product;
 
@@ -12,15 +14,24 @@ public class ProductMapper {
 	private ProductMapper() {}
 
 	public static ProductResponse toResponse(Product product, AppProperties appProperties) {
+		return toResponse(product, null, appProperties);
+	}
+
+	/**
+	 * Maps a product, taking the current price from the live auction book when available.
+	 */
+	public static ProductResponse toResponse(Product product, AuctionSnapshot auction, AppProperties appProperties) {
 		BigDecimal currentPrice = product.getStartingPrice();
-		if (product.getBids() != null && !product.getBids().isEmpty()) {
+		LocalDateTime endTime = auction != null ? auction.endTime() : product.getEndTime();
+		if (auction != null) {
+			currentPrice = auction.currentPrice();
+		} else if (product.getBids() != null && !product.getBids().isEmpty()) {
 			Bid top = product.getBids().get(0);
 			if (top != null && top.getAmount() != null) {
 				currentPrice = top.getAmount();
 			}
 		}
-		String status = LocalDateTime.now().isAfter(product.getEndTime()) ? "SOLD" : "ACTIVE";
-		String imageUrl = buildImageUrl(product.getImageFilename(), appProperties);
+		String status = status(auction != null ? auction.closed() : product.getClosedAt() != null);
 		return new ProductResponse(
 				product.getId(),
 				product.getSellerName(),
@@ -28,12 +39,64 @@ public class ProductMapper {
 				product.getDescription(),
 				product.getStartingPrice(),
 				currentPrice,
-				product.getEndTime(),
+				endTime,
 				status,
-				imageUrl
+				buildImageUrl(product.getImageFilename(), appProperties),
+				buildImageUrl(ImageVariant.THUMB.filename(product.getImageFilename()), appProperties),
+				buildImageUrl(ImageVariant.MEDIUM.filename(product.getImageFilename()), appProperties)
 		);
 	}
 
+	/**
+	 * Maps a listing row; the live auction book wins over the aggregate read from the database.
+	 */
+	public static ProductResponse toResponse(ProductSummary summary, AuctionSnapshot auction, AppProperties appProperties) {
+		BigDecimal currentPrice = summary.topBid() != null ? summary.topBid() : summary.startingPrice();
+		LocalDateTime endTime = summary.endTime();
+		if (auction != null) {
+			currentPrice = auction.currentPrice();
+			endTime = auction.endTime();
+		}
+		String status = status(auction != null ? auction.closed() : summary.closedAt() != null);
+		return new ProductResponse(
+				summary.id(),
+				summary.sellerName(),
+				summary.name(),
+				summary.description(),
+				summary.startingPrice(),
+				currentPrice,
+				endTime,
+				status,
+				buildImageUrl(summary.imageFilename(), appProperties),
+				buildImageUrl(ImageVariant.THUMB.filename(summary.imageFilename()), appProperties),
+				buildImageUrl(ImageVariant.MEDIUM.filename(summary.imageFilename()), appProperties)
+		);
+	}
+
+	/**
+	 * Replaces the fields that change while an auction runs with the live auction book's values.
+	 */
+	public static ProductResponse withAuction(ProductResponse response, AuctionSnapshot auction) {
+		return new ProductResponse(
+				response.id(),
+				response.sellerName(),
+				response.name(),
+				response.description(),
+				response.startingPrice(),
+				auction.currentPrice(),
+				auction.endTime(),
+				status(auction.closed()),
+				response.imageUrl(),
+				response.thumbnailUrl(),
+				response.mediumUrl()
+		);
+	}
+
+	// NOTE: closing is recorded by the auction closer, so reads never consult the clock
+	private static String status(boolean closed) {
+		return closed ? "SOLD" : "ACTIVE";
+	}
+
 	private static String buildImageUrl(String imageFilename, AppProperties appProperties) {
 		if (imageFilename == null || imageFilename.isBlank()) {
 			return null;
@@ -0,0 +1,128 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.CursorPage;
+import com.example.bidbackend.dto.ProductResponse;
+import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.model.Product;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.search.ProductSearchIndex;
+import com.example.bidbackend.search.SearchSort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Product search: the index picks and orders the page, the database fills in the listings in one query.
+ */
+@Service
+public class ProductSearchService {
+	private final ProductSearchIndex searchIndex;
+	private final ProductRepository productRepository;
+	private final AuctionBook auctionBook;
+	private final AppProperties appProperties;
+
+	public ProductSearchService(
+			ProductSearchIndex searchIndex,
+			ProductRepository productRepository,
+			AuctionBook auctionBook,
+			AppProperties appProperties
+	) {
+		this.searchIndex = searchIndex;
+		this.productRepository = productRepository;
+		this.auctionBook = auctionBook;
+		this.appProperties = appProperties;
+	}
+
+	@Transactional(readOnly = true)
+	public CursorPage<ProductResponse> search(
+			String q,
+			String status,
+			BigDecimal minPrice,
+			BigDecimal maxPrice,
+			String sort,
+			String cursor,
+			Integer limit
+	) {
+		if (q == null || q.isBlank()) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "q is required");
+		}
+		int pageSize = appProperties.paging().resolve(limit);
+		SearchSort order = parseSort(sort);
+		List<ProductSearchIndex.Hit> hits = searchIndex.search(new ProductSearchIndex.Query(
+				q,
+				ProductService.parseStatus(status),
+				minPrice,
+				maxPrice,
+				order,
+				cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, order),
+				pageSize + 1
+		));
+		List<ProductSearchIndex.Hit> page = hits.size() > pageSize ? hits.subList(0, pageSize) : hits;
+
+		List<Long> ids = new ArrayList<>(page.size());
+		for (ProductSearchIndex.Hit hit : page) {
+			ids.add(hit.productId());
+		}
+		Map<Long, Product> products = new HashMap<>();
+		for (Product product : productRepository.findAllById(ids)) {
+			products.put(product.getId(), product);
+		}
+		List<ProductResponse> items = new ArrayList<>(page.size());
+		for (Long id : ids) {
+			Product product = products.get(id);
+			// deleted after the index was read
+			if (product != null) {
+				items.add(ProductMapper.toResponse(product, auctionBook.get(id), appProperties));
+			}
+		}
+		String next = hits.size() > pageSize ? encodeCursor(page.get(pageSize - 1), order) : null;
+		return new CursorPage<>(items, next);
+	}
+
+	private static SearchSort parseSort(String sort) {
+		if (sort == null || sort.isBlank()) {
+			return SearchSort.RELEVANCE;
+		}
+		try {
+			return SearchSort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "sort must be RELEVANCE or ENDING_SOON");
+		}
+	}
+
+	private static String encodeCursor(ProductSearchIndex.Hit last, SearchSort sort) {
+		return switch (sort) {
+			case RELEVANCE -> CursorCodec.encode(last.score(), last.productId());
+			case ENDING_SOON -> CursorCodec.encode(last.closed(), last.endTime(), last.productId());
+		};
+	}
+
+	private static ProductSearchIndex.Hit decodeCursor(String cursor, SearchSort sort) {
+		try {
+			return switch (sort) {
+				case RELEVANCE -> {
+					String[] parts = CursorCodec.decode(cursor, 2);
+					yield new ProductSearchIndex.Hit(Long.parseLong(parts[1]), Double.parseDouble(parts[0]), false, null);
+				}
+				case ENDING_SOON -> {
+					String[] parts = CursorCodec.decode(cursor, 3);
+					yield new ProductSearchIndex.Hit(Long.parseLong(parts[2]), 0, Boolean.parseBoolean(parts[0]),
+							LocalDateTime.parse(parts[1]));
+				}
+			};
+		} catch (NumberFormatException | DateTimeParseException e) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+		}
+	}
+}
@@ -1,38 +1,119 @@
 package com.example.bidbackend.service;
 
+import com.example.bidbackend.auction.AuctionBook;
+import com.example.bidbackend.auction.AuctionSnapshot;
+import com.example.bidbackend.auction.BidWriteBehind;
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.dto.CursorPage;
+import com.example.bidbackend.dto.ProductSummary;
 import com.example.bidbackend.dto.ProductUpsertForm;
+import com.example.bidbackend.event.ProductChangedEvent;
 import com.example.bidbackend.exception.ApiException;
 import com.example.bidbackend.model.Product;
+import com.example.bidbackend.repository.BidRepository;
+import com.example.bidbackend.repository.ProductListingQuery;
 import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.repository.ProxyBidRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 public class ProductService {
 	private final ProductRepository productRepository;
+	private final BidRepository bidRepository;
+	private final ProxyBidRepository proxyBidRepository;
 	private final UploadsService uploadsService;
+	private final AuctionBook auctionBook;
+	private final BidWriteBehind bidWriteBehind;
+	private final ApplicationEventPublisher events;
+	private final TransactionTemplate transactionTemplate;
+	private final AppProperties appProperties;
 
-	public ProductService(ProductRepository productRepository, UploadsService uploadsService) {
+	public ProductService(
+			ProductRepository productRepository,
+			BidRepository bidRepository,
+			ProxyBidRepository proxyBidRepository,
+			UploadsService uploadsService,
+			AuctionBook auctionBook,
+			BidWriteBehind bidWriteBehind,
+			ApplicationEventPublisher events,
+			TransactionTemplate transactionTemplate,
+			AppProperties appProperties
+	) {
 		this.productRepository = productRepository;
+		this.bidRepository = bidRepository;
+		this.proxyBidRepository = proxyBidRepository;
 		this.uploadsService = uploadsService;
+		this.auctionBook = auctionBook;
+		this.bidWriteBehind = bidWriteBehind;
+		this.events = events;
+		this.transactionTemplate = transactionTemplate;
+		this.appProperties = appProperties;
 	}
 
 	@Transactional(readOnly = true)
-	public List<Product> listAll() {
-		return productRepository.findAllByOrderByCreatedAtDesc();
+	public CursorPage<ProductSummary> list(
+			String seller,
+			String status,
+			BigDecimal minPrice,
+			BigDecimal maxPrice,
+			String cursor,
+			Integer limit
+	) {
+		int pageSize = appProperties.paging().resolve(limit);
+		LocalDateTime afterCreatedAt = null;
+		Long afterId = null;
+		if (cursor != null && !cursor.isBlank()) {
+			String[] parts = CursorCodec.decode(cursor, 2);
+			try {
+				afterCreatedAt = LocalDateTime.parse(parts[0]);
+				afterId = Long.valueOf(parts[1]);
+			} catch (NumberFormatException | DateTimeParseException e) {
+				throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+			}
+		}
+		String sellerKey = seller == null || seller.isBlank() ? null : seller.trim().toLowerCase(Locale.ROOT);
+
+		List<ProductSummary> rows = productRepository.findSummaries(new ProductListingQuery(
+				sellerKey,
+				parseStatus(status),
+				minPrice,
+				maxPrice,
+				afterCreatedAt,
+				afterId,
+				pageSize + 1
+		));
+		if (rows.size() <= pageSize) {
+			return new CursorPage<>(rows, null);
+		}
+		List<ProductSummary> page = rows.subList(0, pageSize);
+		ProductSummary last = page.get(pageSize - 1);
+		return new CursorPage<>(page, CursorCodec.encode(last.createdAt(), last.id()));
 	}
 
 	@Transactional(readOnly = true)
-	public List<Product> listBySeller(String sellerName) {
+	public CursorPage<ProductSummary> listBySeller(
+			String sellerName,
+			String status,
+			BigDecimal minPrice,
+			BigDecimal maxPrice,
+			String cursor,
+			Integer limit
+	) {
 		if (sellerName == null || sellerName.isBlank()) {
 			throw new ApiException(HttpStatus.BAD_REQUEST, "sellerName is required");
 		}
-		return productRepository.findBySellerNameIgnoreCaseOrderByCreatedAtDesc(sellerName);
+		return list(sellerName, status, minPrice, maxPrice, cursor, limit);
 	}
 
 	@Transactional(readOnly = true)
@@ -41,21 +122,18 @@ public class ProductService {
 				.orElseThrow(() -> new ApiException(HttpStatus.NOT_FOUND, "Product not found"));
 	}
 
+	@Transactional(readOnly = true)
+	public List<Product> getAllById(Collection<Long> ids) {
+		return productRepository.findAllById(ids);
+	}
+
 	@Transactional
 	public Product create(ProductUpsertForm form) {
 		validateUpsert(form, true);
-
-		Product product = new Product();
-		product.setSellerName(form.getSellerName().trim());
-		product.setName(form.getName().trim());
-		product.setDescription(form.getDescription().trim());
-		product.setStartingPrice(form.getStartingPrice());
-		product.setEndTime(form.getEndTime());
-
-		String filename = uploadsService.saveImage(form.getImage());
-		product.setImageFilename(filename);
-
-		return productRepository.save(product);
+		Product product = newProduct(form, uploadsService.saveImage(form.getImage()));
+		Product saved = productRepository.save(product);
+		events.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, saved));
+		return saved;
 	}
 
 	@Transactional
@@ -81,20 +159,38 @@ public class ProductService {
 			product.setStartingPrice(form.getStartingPrice());
 		}
 		if (form.getEndTime() != null) {
-			product.setEndTime(form.getEndTime());
+			// the book knows about a close before the writer has recorded it on the row
+			AuctionSnapshot auction = auctionBook.get(id);
+			if (auction != null ? auction.closed() : product.getClosedAt() != null) {
+				throw new ApiException(HttpStatus.BAD_REQUEST, "Auction is already closed");
+			}
+			// same rule the auction book applies: once bidding has started the deadline can only move out
+			if (auction == null || auction.bidCount() == 0 || form.getEndTime().isAfter(auction.endTime())) {
+				product.setEndTime(form.getEndTime());
+			}
+		}
+		if (form.getSoftCloseWindowSeconds() != null) {
+			product.setSoftCloseWindowSeconds(form.getSoftCloseWindowSeconds());
+		}
+		if (form.getSoftCloseExtensionSeconds() != null) {
+			product.setSoftCloseExtensionSeconds(form.getSoftCloseExtensionSeconds());
 		}
 
+		String previousImage = null;
 		if (form.getImage() != null && !form.getImage().isEmpty()) {
-			String old = product.getImageFilename();
 			String filename = uploadsService.saveImage(form.getImage());
-			product.setImageFilename(filename);
-			uploadsService.deleteIfExists(old);
+			if (!filename.equals(product.getImageFilename())) {
+				previousImage = product.getImageFilename();
+				product.setImageFilename(filename);
+			}
 		}
 
-		return productRepository.save(product);
+		Product saved = productRepository.save(product);
+		events.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, saved, previousImage));
+		return saved;
 	}
 
-	@Transactional
+	// not transactional itself: waiting for the bid writer must not hold a database connection
 	public void delete(Long id, String sellerName) {
 		Product product = getById(id);
 		if (sellerName == null || sellerName.isBlank()) {
@@ -103,12 +199,63 @@ public class ProductService {
 		if (!product.getSellerName().equalsIgnoreCase(sellerName.trim())) {
 			throw new ApiException(HttpStatus.FORBIDDEN, "You can only delete your own products");
 		}
-		String old = product.getImageFilename();
-		productRepository.delete(product);
-		uploadsService.deleteIfExists(old);
+		// stop accepting bids and let the writer catch up before removing the rows; the book drops the
+		// auction once the delete commits
+		auctionBook.suspend(id);
+		try {
+			bidWriteBehind.awaitDrained();
+			transactionTemplate.executeWithoutResult(status -> {
+				productRepository.clearWinningBid(id);
+				proxyBidRepository.deleteAllByProductId(id);
+				bidRepository.deleteAllByProductId(id);
+				productRepository.deleteListing(id);
+				events.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, product));
+			});
+		} catch (RuntimeException e) {
+			auctionBook.resume(id);
+			throw e;
+		}
+	}
+
+	static ProductListingQuery.Status parseStatus(String status) {
+		if (status == null || status.isBlank()) {
+			return null;
+		}
+		try {
+			return ProductListingQuery.Status.valueOf(status.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "status must be ACTIVE or SOLD");
+		}
+	}
+
+	/**
+	 * A new listing from a form that passed {@link #validateListing}; the image is already stored.
+	 */
+	static Product newProduct(ProductUpsertForm form, String imageFilename) {
+		Product product = new Product();
+		product.setSellerName(form.getSellerName().trim());
+		product.setName(form.getName().trim());
+		product.setDescription(form.getDescription().trim());
+		product.setStartingPrice(form.getStartingPrice());
+		product.setEndTime(form.getEndTime());
+		product.setSoftCloseWindowSeconds(form.getSoftCloseWindowSeconds());
+		product.setSoftCloseExtensionSeconds(form.getSoftCloseExtensionSeconds());
+		product.setImageFilename(imageFilename);
+		return product;
 	}
 
 	private static void validateUpsert(ProductUpsertForm form, boolean isCreate) {
+		validateListing(form, isCreate);
+		if (isCreate && (form.getImage() == null || form.getImage().isEmpty())) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Image is required");
+		}
+	}
+
+	/**
+	 * Every rule of {@link #validateUpsert} except the uploaded image, for callers that get the image
+	 * some other way.
+	 */
+	static void validateListing(ProductUpsertForm form, boolean isCreate) {
 		if (form == null) {
 			throw new ApiException(HttpStatus.BAD_REQUEST, "Form is required");
 		}
@@ -128,9 +275,6 @@ public class ProductService {
 			if (form.getEndTime() == null) {
 				throw new ApiException(HttpStatus.BAD_REQUEST, "End time is required");
 			}
-			if (form.getImage() == null || form.getImage().isEmpty()) {
-				throw new ApiException(HttpStatus.BAD_REQUEST, "Image is required");
-			}
 		}
 
 		if (form.getStartingPrice() != null && form.getStartingPrice().compareTo(BigDecimal.ZERO) <= 0) {
@@ -139,5 +283,9 @@ public class ProductService {
 		if (form.getEndTime() != null && form.getEndTime().isBefore(LocalDateTime.now())) {
 			throw new ApiException(HttpStatus.BAD_REQUEST, "End time must be in the future");
 		}
+		if ((form.getSoftCloseWindowSeconds() != null && form.getSoftCloseWindowSeconds() < 0)
+				|| (form.getSoftCloseExtensionSeconds() != null && form.getSoftCloseExtensionSeconds() < 0)) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Soft close seconds must be >= 0");
+		}
 	}
 }
@@ -0,0 +1,60 @@
+package com.example.bidbackend.service;
+
+import com.example.bidbackend.config.AppProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the bytes of small, frequently requested upload files (mostly thumbnails) in memory.
+ * Uploads are immutable once stored, so entries only go away by eviction or when the file is deleted.
+ */
+@Component
+public class UploadFileCache implements MeterBinder {
+	private final long maxFileBytes;
+	private final Cache<String, CachedFile> cache;
+
+	public UploadFileCache(AppProperties appProperties) {
+		this.maxFileBytes = appProperties.uploadServing().smallFileMaxSize().toBytes();
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(appProperties.uploadServing().smallFileCacheSize().toBytes())
+				.<String, CachedFile>weigher((name, file) -> file.bytes().length)
+				.recordStats()
+				.build();
+	}
+
+	public record CachedFile(byte[] bytes, long lastModified) {}
+
+	public CachedFile get(String filename) {
+		return cache.getIfPresent(filename);
+	}
+
+	public boolean accepts(long size) {
+		return size <= maxFileBytes;
+	}
+
+	public void put(String filename, CachedFile file) {
+		cache.put(filename, file);
+	}
+
+	public void invalidate(String filename) {
+		cache.invalidate(filename);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "upload-files");
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+}
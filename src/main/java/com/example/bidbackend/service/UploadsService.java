@@ -2,17 +2,22 @@ package com.example.bidbackend.service;
 
 import com.example.bidbackend.config.AppProperties;
 import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.storage.BlobStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.util.Locale;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class UploadsService {
@@ -21,10 +26,35 @@ public class UploadsService {
 			"image/png"
 	);
 
-	private final Path uploadsDir;
+	private final BlobStore blobStore;
+	private final ImageReferences imageReferences;
+	private final ImagePipeline imagePipeline;
+	private final DistributionSummary uploadBytes;
+	private final Timer storeTime;
+	private final long maxImageSize;
 
-	public UploadsService(AppProperties appProperties) {
-		this.uploadsDir = Path.of(appProperties.uploadsDir()).toAbsolutePath().normalize();
+	public UploadsService(
+			BlobStore blobStore,
+			ImageReferences imageReferences,
+			ImagePipeline imagePipeline,
+			MeterRegistry meterRegistry,
+			AppProperties appProperties
+	) {
+		this.blobStore = blobStore;
+		this.imageReferences = imageReferences;
+		this.imagePipeline = imagePipeline;
+		this.maxImageSize = appProperties.images().maxUploadSize().toBytes();
+		this.uploadBytes = DistributionSummary.builder("uploads.bytes")
+				.description("Size of uploaded images")
+				.baseUnit("bytes")
+				.publishPercentileHistogram()
+				.minimumExpectedValue(1024.0)
+				.maximumExpectedValue(16.0 * 1024 * 1024)
+				.register(meterRegistry);
+		this.storeTime = Timer.builder("uploads.store")
+				.description("Time to hash and store an uploaded image")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
 	}
 
 	public String saveImage(MultipartFile image) {
@@ -35,32 +65,69 @@ public class UploadsService {
 		if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType)) {
 			throw new ApiException(HttpStatus.BAD_REQUEST, "Only JPG/PNG images are allowed");
 		}
+		checkSize(image.getSize());
 
 		String original = StringUtils.cleanPath(image.getOriginalFilename() == null ? "" : image.getOriginalFilename());
-		String extension = guessExtension(original, contentType);
-		String filename = UUID.randomUUID() + extension;
+		return store(image::getInputStream, guessExtension(original, contentType), image.getSize());
+	}
 
-		try {
-			Files.createDirectories(uploadsDir);
-			Path target = uploadsDir.resolve(filename).normalize();
-			Files.copy(image.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-			return filename;
-		} catch (IOException e) {
-			throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save image");
+	/**
+	 * Stores an image that did not arrive as its own upload, e.g. an entry of a bulk ingest archive.
+	 * The type is taken from the file name.
+	 */
+	public String saveImage(String filename, byte[] content) {
+		if (content.length == 0) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Image file is empty");
 		}
+		String lower = filename.toLowerCase(Locale.ROOT);
+		if (!lower.endsWith(".jpg") && !lower.endsWith(".jpeg") && !lower.endsWith(".png")) {
+			throw new ApiException(HttpStatus.BAD_REQUEST, "Only JPG/PNG images are allowed");
+		}
+		checkSize(content.length);
+		return store(() -> new ByteArrayInputStream(content), guessExtension(filename, null), content.length);
+	}
+
+	public long maxImageSize() {
+		return maxImageSize;
 	}
 
-	public void deleteIfExists(String filename) {
-		if (filename == null || filename.isBlank()) {
-			return;
+	// archive entries only pass the bulk route's multipart limit, so every image is held to its own limit here
+	private void checkSize(long size) {
+		if (size > maxImageSize) {
+			throw new ApiException(HttpStatus.PAYLOAD_TOO_LARGE,
+					"Images are limited to " + DataSize.ofBytes(maxImageSize).toMegabytes() + "MB");
 		}
+	}
+
+	private String store(ContentSource content, String extension, long size) {
+		long started = System.nanoTime();
 		try {
-			Files.deleteIfExists(uploadsDir.resolve(filename).normalize());
-		} catch (IOException ignored) {
-			// best-effort delete
+			// content-addressed: uploading the same picture twice stores it, and renders its variants, once
+			String key;
+			try (InputStream in = content.open()) {
+				key = blobStore.put(in, extension);
+			}
+			imageReferences.track(key);
+			if (blobStore.stat(key) == null) {
+				// collected between the store finding it and track(); its grace period has restarted, so store it again
+				try (InputStream in = content.open()) {
+					blobStore.put(in, extension);
+				}
+			}
+			imagePipeline.submit(key);
+			storeTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+			uploadBytes.record(size);
+			return key;
+		} catch (IOException e) {
+			throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to save image");
 		}
 	}
 
+	@FunctionalInterface
+	private interface ContentSource {
+		InputStream open() throws IOException;
+	}
+
 	private static String guessExtension(String originalFilename, String contentType) {
 		String lower = originalFilename.toLowerCase();
 		if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
@@ -0,0 +1,47 @@
+package com.example.bidbackend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Content-addressed storage for uploaded files.
+ *
+ * <p>{@link #put} names a blob after the hash of its content, so storing the same bytes twice yields the
+ * same key and one copy. Derived blobs (image variants) are stored under keys chosen by the caller.
+ * Keys are plain file names: no separators, no leading dot.
+ */
+public interface BlobStore {
+	record BlobInfo(long size, long lastModified) {}
+
+	/**
+	 * Stores the content, hashing it while it is copied, and returns its key ({@code <hash><extension>}).
+	 */
+	String put(InputStream content, String extension) throws IOException;
+
+	/**
+	 * Stores a blob derived from another one under the given key, replacing it atomically.
+	 */
+	void putDerived(String key, byte[] content) throws IOException;
+
+	/**
+	 * Returns size and modification time, or null if there is no such blob.
+	 */
+	BlobInfo stat(String key) throws IOException;
+
+	InputStream open(String key) throws IOException;
+
+	/**
+	 * Returns the local file holding the blob, for zero-copy serving, or null when the store is not on
+	 * the local file system or the blob does not exist.
+	 */
+	Path localPath(String key);
+
+	void delete(String key) throws IOException;
+
+	/**
+	 * Visits every stored key, derived ones included.
+	 */
+	void forEachKey(Consumer<String> action) throws IOException;
+}
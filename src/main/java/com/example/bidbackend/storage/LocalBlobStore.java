@@ -0,0 +1,151 @@
+package com.example.bidbackend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link BlobStore} on the local file system, sharded two levels deep by hash prefix
+ * ({@code ab/cd/abcd...png}) so no directory grows past a few thousand entries.
+ *
+ * <p>Files stored flat in the root by earlier versions (random or hash names) are still found there;
+ * new blobs always go to their shard.
+ */
+public class LocalBlobStore implements BlobStore {
+	private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{32}[A-Za-z0-9._-]*");
+	private static final Pattern SAFE_KEY = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private final Path root;
+
+	public LocalBlobStore(Path root) {
+		this.root = root.toAbsolutePath().normalize();
+	}
+
+	@Override
+	public String put(InputStream content, String extension) throws IOException {
+		Files.createDirectories(root);
+		Path temp = Files.createTempFile(root, "upload-", TEMP_SUFFIX);
+		try {
+			MessageDigest sha256 = sha256();
+			try (InputStream in = new DigestInputStream(content, sha256)) {
+				Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+			}
+			String key = HexFormat.of().formatHex(sha256.digest(), 0, 16) + extension;
+			if (existing(key) == null) {
+				Path target = shardOf(key);
+				Files.createDirectories(target.getParent());
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+			}
+			return key;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@Override
+	public void putDerived(String key, byte[] content) throws IOException {
+		Path target = CONTENT_KEY.matcher(checked(key)).matches() ? shardOf(key) : root.resolve(key);
+		Files.createDirectories(target.getParent());
+		// write next to the target first so a half-written blob is never visible
+		Path temp = Files.createTempFile(target.getParent(), "derived-", TEMP_SUFFIX);
+		try {
+			Files.write(temp, content);
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@Override
+	public BlobInfo stat(String key) throws IOException {
+		Path path = existing(key);
+		if (path == null) {
+			return null;
+		}
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			return new BlobInfo(attributes.size(), attributes.lastModifiedTime().toMillis());
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public InputStream open(String key) throws IOException {
+		Path path = existing(key);
+		if (path == null) {
+			throw new NoSuchFileException(key);
+		}
+		return Files.newInputStream(path);
+	}
+
+	@Override
+	public Path localPath(String key) {
+		return existing(key);
+	}
+
+	@Override
+	public void delete(String key) throws IOException {
+		checked(key);
+		if (CONTENT_KEY.matcher(key).matches()) {
+			Files.deleteIfExists(shardOf(key));
+		}
+		Files.deleteIfExists(root.resolve(key));
+	}
+
+	@Override
+	public void forEachKey(Consumer<String> action) throws IOException {
+		if (!Files.isDirectory(root)) {
+			return;
+		}
+		try (Stream<Path> files = Files.walk(root, 3)) {
+			files.filter(Files::isRegularFile)
+					.map(path -> path.getFileName().toString())
+					.filter(name -> !name.endsWith(TEMP_SUFFIX) && SAFE_KEY.matcher(name).matches())
+					.forEach(action);
+		}
+	}
+
+	private Path existing(String key) {
+		checked(key);
+		if (CONTENT_KEY.matcher(key).matches()) {
+			Path sharded = shardOf(key);
+			if (Files.exists(sharded)) {
+				return sharded;
+			}
+		}
+		Path flat = root.resolve(key);
+		return Files.exists(flat) ? flat : null;
+	}
+
+	private Path shardOf(String key) {
+		return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+	}
+
+	private static String checked(String key) {
+		if (key == null || !SAFE_KEY.matcher(key).matches() || key.contains("..")) {
+			throw new IllegalArgumentException("Invalid blob key: " + key);
+		}
+		return key;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
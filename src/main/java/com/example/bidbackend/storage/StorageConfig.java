@@ -0,0 +1,20 @@
+package com.example.bidbackend.storage;
+
+import com.example.bidbackend.config.AppProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class StorageConfig {
+	/**
+	 * Local file system storage under {@code app.uploads-dir}, unless another {@link BlobStore} bean is defined.
+	 */
+	@Bean
+	@ConditionalOnMissingBean(BlobStore.class)
+	public BlobStore blobStore(AppProperties appProperties) {
+		return new LocalBlobStore(Path.of(appProperties.uploadsDir()));
+	}
+}
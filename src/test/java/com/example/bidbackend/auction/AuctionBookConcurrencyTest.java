@@ -0,0 +1,158 @@
+package com.example.bidbackend.auction;
+
+import com.example.bidbackend.config.AppProperties;
+import com.example.bidbackend.event.ProductChangedEvent;
+import com.example.bidbackend.exception.ApiException;
+import com.example.bidbackend.model.Bid;
+import com.example.bidbackend.model.Product;
+import com.example.bidbackend.repository.BidRepository;
+import com.example.bidbackend.repository.ProductRepository;
+import com.example.bidbackend.repository.ProxyBidRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers a few products with concurrent bids and proxy maximums and checks what reached the writer:
+ * per product, every accepted amount and every bid id must be strictly above the one before.
+ */
+class AuctionBookConcurrencyTest {
+	private static final int PRODUCTS = 4;
+	private static final int BIDS = 8_000;
+
+	// written under the product's stripe lock, so each list is in acceptance order
+	private final Map<Long, List<Accepted>> accepted = new ConcurrentHashMap<>();
+
+	private record Accepted(long bidId, BigDecimal amount) {}
+
+	@Test
+	void acceptedBidsIncreaseInAmountAndIdPerProduct() throws Exception {
+		AuctionBook book = newBook();
+		LocalDateTime endTime = LocalDateTime.now().plusDays(1);
+		Map<Long, AtomicLong> nextAmount = new ConcurrentHashMap<>();
+		for (long id = 1; id <= PRODUCTS; id++) {
+			book.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, product(id, endTime)));
+			nextAmount.put(id, new AtomicLong(10));
+		}
+
+		List<Future<?>> futures = new ArrayList<>(BIDS);
+		ExecutorService executor = virtualThreadPerTaskExecutor();
+		try {
+			for (int i = 0; i < BIDS; i++) {
+				long productId = 1 + i % PRODUCTS;
+				String bidder = "bidder-" + i % 50;
+				boolean proxy = i % 20 == 0;
+				futures.add(executor.submit(() -> {
+					// amounts are drawn before the lock is taken, so bids overtake each other and some lose
+					long step = ThreadLocalRandom.current().nextLong(1, 4);
+					BigDecimal amount = BigDecimal.valueOf(nextAmount.get(productId).addAndGet(step));
+					try {
+						if (proxy) {
+							book.registerProxy(productId, bidder, amount.add(BigDecimal.valueOf(25)));
+						} else {
+							book.accept(productId, amount, bidder);
+						}
+					} catch (ApiException e) {
+						// beaten by a concurrent bid or proxy
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(accepted).hasSize(PRODUCTS);
+		for (Map.Entry<Long, List<Accepted>> entry : accepted.entrySet()) {
+			List<Accepted> bids = entry.getValue();
+			assertThat(bids).hasSizeGreaterThan(1);
+			for (int i = 1; i < bids.size(); i++) {
+				Accepted previous = bids.get(i - 1);
+				Accepted bid = bids.get(i);
+				assertThat(bid.amount()).as("amount of bid %d on product %d", i, entry.getKey())
+						.isGreaterThan(previous.amount());
+				assertThat(bid.bidId()).as("id of bid %d on product %d", i, entry.getKey())
+						.isGreaterThan(previous.bidId());
+			}
+			AuctionSnapshot snapshot = book.get(entry.getKey());
+			assertThat(snapshot.bidCount()).isEqualTo(bids.size());
+			assertThat(snapshot.currentPrice()).isEqualByComparingTo(bids.get(bids.size() - 1).amount());
+		}
+	}
+
+	private AuctionBook newBook() {
+		AppProperties appProperties = new Binder(new MapConfigurationPropertySource(Map.of("app.uploads-dir", "./uploads")))
+				.bindOrCreate("app", Bindable.of(AppProperties.class));
+		BidWriteBehind writeBehind = mock(BidWriteBehind.class);
+		when(writeBehind.enqueue(any(), anyLong(), any(), any(), any())).thenAnswer(invocation -> {
+			Long productId = invocation.getArgument(0);
+			accepted.computeIfAbsent(productId, id -> Collections.synchronizedList(new ArrayList<>()))
+					.add(new Accepted(invocation.getArgument(1), invocation.getArgument(2)));
+			return new BidWriteBehind.Receipt(0, CompletableFuture.completedFuture(null));
+		});
+		when(writeBehind.awaitDurable(any())).thenReturn(true);
+		AtomicLong sequence = new AtomicLong();
+		BidIds bidIds = new BidIds(null, null) {
+			@Override
+			protected long fetchBlock() {
+				return sequence.getAndAdd(Bid.ID_ALLOCATION_SIZE) + 1;
+			}
+		};
+		return new AuctionBook(
+				mock(ProductRepository.class),
+				mock(BidRepository.class),
+				mock(ProxyBidRepository.class),
+				writeBehind,
+				bidIds,
+				event -> {},
+				appProperties
+		);
+	}
+
+	private static Product product(long id, LocalDateTime endTime) {
+		Product product = new Product();
+		product.setId(id);
+		product.setSellerName("seller");
+		product.setName("Lot " + id);
+		product.setDescription("Lot " + id);
+		product.setStartingPrice(BigDecimal.TEN);
+		product.setEndTime(endTime);
+		product.setSoftCloseWindowSeconds(0);
+		product.setSoftCloseExtensionSeconds(0);
+		return product;
+	}
+
+	// Executors.newVirtualThreadPerTaskExecutor() on Java 21; the build targets 17, hence the lookup
+	private static ExecutorService virtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(64);
+		}
+	}
+}